@@ -0,0 +1,36 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Representative payment fixtures shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    private static final PaymentMethod[] METHODS = PaymentMethod.values();
+
+    private BenchmarkData() {
+    }
+
+    static Payment payment(long id) {
+        Payment payment = new Payment(
+                UUID.randomUUID().toString(),
+                "ORDER_" + id,
+                Money.ofMinor(1250 + (id % 100) * 100, "USD"),
+                PaymentStatus.COMPLETED,
+                METHODS[(int) (id % METHODS.length)]
+        );
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(id);
+        payment.setId(id);
+        payment.setTransactionId("TXN_" + (1704110400000L + id));
+        payment.setCreatedAt(createdAt);
+        payment.setUpdatedAt(createdAt.plusSeconds(2));
+        return payment;
+    }
+}
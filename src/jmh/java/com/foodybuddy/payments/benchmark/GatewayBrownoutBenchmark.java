@@ -0,0 +1,104 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.gateway.PaymentGatewayRegistry;
+import com.foodybuddy.payments.gateway.SimulatedPaymentGateway;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import com.foodybuddy.payments.service.ResilientGatewayClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway call latency during a brownout, with and without the resilient client
+ *
+ * The simulated gateway answers in 5 ms, except that "errors" fails half the calls and
+ * "latency" answers a fifth of them after 5 s. unprotected waits on the gateway for the
+ * whole processing timeout, as PaymentService did before; resilient goes through
+ * ResilientGatewayClient with a 200 ms attempt timeout and 3 retries. Compare the
+ * p0.99 rows of the sample-time output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class GatewayBrownoutBenchmark {
+
+    @Param({"healthy", "errors", "latency"})
+    private String gateway;
+
+    private final AtomicLong paymentSequence = new AtomicLong();
+    private PaymentConfig paymentConfig;
+    private SimulatedPaymentGateway simulatedGateway;
+    private ResilientGatewayClient resilientClient;
+
+    @Setup
+    public void setUp() {
+        paymentConfig = new PaymentConfig();
+        paymentConfig.getSimulation().setProcessingDelay(5);
+        paymentConfig.getSimulation().setSchedulerThreads(4);
+        if ("errors".equals(gateway)) {
+            paymentConfig.getSimulation().setErrorRate(0.5);
+        } else if ("latency".equals(gateway)) {
+            paymentConfig.getSimulation().setLatencySpikeRate(0.2);
+            paymentConfig.getSimulation().setLatencySpikeDelay(5000);
+        }
+        paymentConfig.getProcessing().setTimeout(2000);
+        paymentConfig.getProcessing().setAttemptTimeout(200);
+        paymentConfig.getProcessing().setRetryAttempts(3);
+        paymentConfig.getProcessing().setRetryBackoff(20);
+        paymentConfig.getProcessing().setRetryMaxBackoff(200);
+        paymentConfig.getExecution().setMaxConcurrentGatewayCalls(1000);
+        paymentConfig.getExecution().setGatewayPermitWait(100);
+        paymentConfig.getCircuitBreaker().setOpenDuration(1000);
+
+        simulatedGateway = new SimulatedPaymentGateway(paymentConfig);
+        resilientClient = new ResilientGatewayClient(new PaymentGatewayRegistry(List.of(simulatedGateway)),
+                paymentConfig, new PaymentMetrics(new SimpleMeterRegistry()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        simulatedGateway.shutdown();
+    }
+
+    @Benchmark
+    public Object unprotected() {
+        try {
+            return simulatedGateway.charge(BenchmarkData.payment(paymentSequence.incrementAndGet()))
+                    .get(paymentConfig.getProcessing().getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object resilient() {
+        try {
+            return resilientClient.charge(BenchmarkData.payment(paymentSequence.incrementAndGet()))
+                    .handle((result, error) -> result != null ? result : error)
+                    .join();
+        } catch (RejectedExecutionException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.service.SingleFlight;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database queries per lookup when many threads read the same hot keys
+ *
+ * The "query" sleeps queryMillis to stand in for findByPaymentId. direct runs one query
+ * per lookup; coalesced goes through the SingleFlight used by PaymentCache. Compare the
+ * queries rate (secondary result) with the lookup throughput: for coalesced it stays
+ * flat at about hotKeys queries per queryMillis as @Threads grows, for direct it grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(64)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+public class LookupCoalescingBenchmark {
+
+    @Param({"1", "16"})
+    private int hotKeys;
+
+    @Param({"2"})
+    private long queryMillis;
+
+    private SingleFlight<String, String> singleFlight;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class QueryCount {
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        singleFlight = new SingleFlight<>(1000, outcome -> { });
+    }
+
+    @Benchmark
+    public String direct(QueryCount count) {
+        return query(key(), count);
+    }
+
+    @Benchmark
+    public String coalesced(QueryCount count) {
+        String key = key();
+        return singleFlight.execute(key, () -> query(key, count));
+    }
+
+    private String key() {
+        return "PAY-" + ThreadLocalRandom.current().nextInt(hotKeys);
+    }
+
+    private String query(String key, QueryCount count) {
+        count.queries++;
+        try {
+            Thread.sleep(queryMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return key;
+    }
+}
@@ -0,0 +1,62 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.exception.PaymentNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of answering a lookup for an unknown paymentId
+ *
+ * The legacy path built a RuntimeException (stack capture) and logged it at ERROR with
+ * its stack (rendering the trace); the current path throws a stackless
+ * PaymentNotFoundException and logs one line at DEBUG. depth adds frames to the stack
+ * to approximate the servlet, Spring MVC and proxy frames below a controller call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NotFoundBenchmark {
+
+    @Param({"0", "100"})
+    private int depth;
+
+    private final String paymentId = "0A8N3FGC80M3Y";
+
+    @Benchmark
+    public String legacyNotFound() {
+        return atDepth(depth, () -> {
+            RuntimeException e = new RuntimeException("Payment not found: " + paymentId);
+            StringWriter trace = new StringWriter();
+            e.printStackTrace(new PrintWriter(trace));
+            return trace.toString();
+        });
+    }
+
+    @Benchmark
+    public String notFound() {
+        return atDepth(depth, () -> {
+            PaymentNotFoundException e = new PaymentNotFoundException(paymentId);
+            return e.getMessage();
+        });
+    }
+
+    private static String atDepth(int depth, Supplier<String> action) {
+        return depth == 0 ? action.get() : atDepth(depth - 1, action);
+    }
+}
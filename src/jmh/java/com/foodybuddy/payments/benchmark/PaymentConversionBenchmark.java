@@ -0,0 +1,40 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.entity.Payment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment entity to PaymentResponse conversion, as done for every API response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PaymentConversionBenchmark {
+
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        payment = BenchmarkData.payment(42);
+    }
+
+    @Benchmark
+    public PaymentResponse toResponse() {
+        return PaymentResponse.from(payment);
+    }
+}
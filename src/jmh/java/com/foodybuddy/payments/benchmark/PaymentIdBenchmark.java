@@ -0,0 +1,53 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.id.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * paymentId and transactionId generation, measured under contention since every
+ * request thread generates both. The legacy* benchmarks keep the previous
+ * UUID / currentTimeMillis scheme as the baseline for SnowflakeIdGenerator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class PaymentIdBenchmark {
+
+    private final SnowflakeIdGenerator idGenerator = new SnowflakeIdGenerator(1);
+
+    @Benchmark
+    public String paymentId() {
+        return idGenerator.nextPaymentId();
+    }
+
+    @Benchmark
+    public String transactionId() {
+        return idGenerator.nextTransactionId();
+    }
+
+    @Benchmark
+    public String legacyPaymentId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String legacyTransactionId() {
+        return "TXN_" + System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,72 @@
+package com.foodybuddy.payments.benchmark;
+
+import com.foodybuddy.payments.FoodybuddyPaymentsApplication;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.service.PaymentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end PaymentService#processPayment through the Spring context: validation,
+ * simulated gateway with zero delay, JPA insert into in-memory H2 and conversion.
+ * Uses the bench profile (src/jmh/resources/application-bench.yml). logLevel compares the
+ * hot path with the payments loggers quiet and at INFO (async appender, plain text).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProcessPaymentBenchmark {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    @Param({"WARN", "INFO"})
+    private String logLevel;
+
+    private final AtomicLong orderSequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(FoodybuddyPaymentsApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("bench")
+                .run("--logging.level.com.foodybuddy.payments=" + logLevel);
+        paymentService = context.getBean(PaymentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaymentResponse processPayment() {
+        ProcessPaymentRequest request = new ProcessPaymentRequest(
+                "ORDER_" + orderSequence.incrementAndGet(), AMOUNT, PaymentMethod.CREDIT_CARD);
+        return paymentService.processPayment(request);
+    }
+}
@@ -0,0 +1,142 @@
+package com.foodybuddy.payments.admission;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit for one traffic class
+ *
+ * Up to limit requests run at once; up to maxQueued more wait for a slot for at most
+ * maxWait, in arrival order, and anything beyond that is refused at once. The limit
+ * adapts to observed latency like a TCP congestion window: a response slower than
+ * latencyTarget cuts it by a tenth, at most once per round trip (only requests admitted
+ * after the last cut count), and each faster response while the limit is in use adds
+ * 1/limit, about one slot per round trip. It stays within [minLimit, maxLimit].
+ */
+public class AdaptiveLimiter {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final long latencyTargetNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+    private int queued;
+    private long lastDecreaseAt = System.nanoTime();
+
+    public AdaptiveLimiter(PaymentConfig.Admission.Limit config) {
+        this.minLimit = Math.max(1, config.getMinLimit());
+        this.maxLimit = Math.max(minLimit, config.getMaxLimit());
+        this.maxQueued = Math.max(0, config.getMaxQueued());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxWait());
+        this.latencyTargetNanos = TimeUnit.MILLISECONDS.toNanos(config.getLatencyTarget());
+        this.limit = Math.max(minLimit, Math.min(maxLimit, config.getInitialLimit()));
+    }
+
+    /**
+     * Take a slot, waiting for one if needed. Returns the admission time to pass to
+     * release, or -1 when the class is saturated; a refused request must not call release.
+     */
+    public long acquire() {
+        lock.lock();
+        try {
+            // Queued requests go first; a new arrival only takes a free slot nobody waits for
+            if (queued == 0 && inFlight < (int) limit) {
+                inFlight++;
+                return System.nanoTime();
+            }
+            if (queued >= maxQueued) {
+                return -1;
+            }
+            queued++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+                inFlight++;
+                return System.nanoTime();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            } finally {
+                queued--;
+                // A waiter giving up may have consumed the signal meant for the next one
+                if (queued > 0 && inFlight < (int) limit) {
+                    released.signal();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long admittedAt) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            boolean limited = inFlight >= (int) limit || queued > 0;
+            inFlight--;
+            if (now - admittedAt > latencyTargetNanos) {
+                if (admittedAt - lastDecreaseAt > 0) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    lastDecreaseAt = now;
+                }
+            } else if (limited) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            if (queued > 0) {
+                released.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Seconds a refused client should wait before retrying: maxWait rounded up, at least 1
+     */
+    public long getRetryAfterSeconds() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (maxWaitNanos + second - 1) / second);
+    }
+
+    public double getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
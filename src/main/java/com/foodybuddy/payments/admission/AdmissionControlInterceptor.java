@@ -0,0 +1,85 @@
+package com.foodybuddy.payments.admission;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.exception.AdmissionRejectedException;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Admits requests to @AdmissionControlled handlers through the AdaptiveLimiter of their
+ * traffic class, and refuses them with AdmissionRejectedException (429) when it is
+ * saturated. The slot is held until the response is complete; for streamed responses
+ * it is released once streaming starts, since streams have their own limit.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admission";
+
+    private final Map<TrafficClass, AdaptiveLimiter> limiters = new EnumMap<>(TrafficClass.class);
+    private final PaymentMetrics paymentMetrics;
+
+    public AdmissionControlInterceptor(PaymentConfig.Admission config, PaymentMetrics paymentMetrics) {
+        this.paymentMetrics = paymentMetrics;
+        limiters.put(TrafficClass.WRITE, new AdaptiveLimiter(config.getWrite()));
+        limiters.put(TrafficClass.POINT_READ, new AdaptiveLimiter(config.getPointRead()));
+        limiters.put(TrafficClass.LIST, new AdaptiveLimiter(config.getList()));
+        limiters.forEach((trafficClass, limiter) -> paymentMetrics.registerAdmission(trafficClass, 
+            limiter::getLimit, limiter::getInFlight));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async re-dispatches of an admitted request are not admitted again
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        AdmissionControlled admission = method.getMethodAnnotation(AdmissionControlled.class);
+        if (admission == null) {
+            return true;
+        }
+        AdaptiveLimiter limiter = limiters.get(admission.value());
+        long admittedAt = limiter.acquire();
+        if (admittedAt < 0) {
+            paymentMetrics.admissionRejected(admission.value());
+            throw new AdmissionRejectedException(admission.value(), limiter.getRetryAfterSeconds());
+        }
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limiter, admittedAt));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            request.removeAttribute(ADMISSION_ATTRIBUTE);
+            admission.limiter.release(admission.admittedAt);
+        }
+    }
+
+    private static final class Admission {
+        private final AdaptiveLimiter limiter;
+        private final long admittedAt;
+
+        private Admission(AdaptiveLimiter limiter, long admittedAt) {
+            this.limiter = limiter;
+            this.admittedAt = admittedAt;
+        }
+    }
+}
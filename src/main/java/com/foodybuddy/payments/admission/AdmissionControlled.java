@@ -0,0 +1,18 @@
+package com.foodybuddy.payments.admission;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a controller method as admitted through the limiter of its traffic class.
+ * Methods without it (health, the SSE feed) are never limited. WRITE methods also start
+ * the read-your-writes window of ReadYourWritesInterceptor.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+
+    TrafficClass value();
+}
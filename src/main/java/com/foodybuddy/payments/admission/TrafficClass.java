@@ -0,0 +1,11 @@
+package com.foodybuddy.payments.admission;
+
+/**
+ * Endpoint classes admitted under separate concurrency limits, so a flood of one
+ * cannot take the request threads the others need
+ */
+public enum TrafficClass {
+    WRITE,       // process, batch, refund
+    POINT_READ,  // one payment or one order
+    LIST         // pages, exports, bulk lookups and stats
+}
@@ -0,0 +1,87 @@
+package com.foodybuddy.payments.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Configuration for the executors used by the payment pipeline
+ * Sizes come from the payment.execution section of application.yml
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    /**
+     * Executor that stores gateway results in async processing mode.
+     * Gateway calls themselves are non-blocking; this executor only runs the short
+     * transaction that commits the final status once the gateway has answered. Tasks are
+     * handed off from the gateway's completing thread, so submitting never blocks and never
+     * runs the task in place: the queue is unbounded and virtual threads are not throttled.
+     * Concurrency is limited before the call starts, by the gateway permits of
+     * ResilientGatewayClient; the connection pool bounds how many results commit at once.
+     * Tasks carry the submitter's MDC; PaymentService hands results off through
+     * MdcTaskDecorator#capturing so they carry the request's instead of the gateway's.
+     */
+    @Bean(name = "paymentGatewayExecutor")
+    public Executor paymentGatewayExecutor(PaymentConfig paymentConfig) {
+        PaymentConfig.Execution execution = paymentConfig.getExecution();
+
+        if (useVirtualThreads(execution)) {
+            logger.info("Creating virtual-thread payment gateway executor");
+
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("payment-gateway-vt-");
+            executor.setVirtualThreads(true);
+            executor.setTaskDecorator(new MdcTaskDecorator());
+            executor.setTaskTerminationTimeout(30000);
+            return executor;
+        }
+
+        logger.info("Creating payment gateway executor - Pool size: {}", execution.getGatewayPoolSize());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(execution.getGatewayPoolSize());
+        executor.setMaxPoolSize(execution.getGatewayPoolSize());
+        executor.setThreadNamePrefix("payment-gateway-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Executor for streaming responses. Sized to the number of concurrent exports allowed,
+     * since each one holds a database connection for its whole duration. Exports log with
+     * the MDC of the request that started them.
+     */
+    @Bean(name = "paymentStreamExecutor")
+    public ThreadPoolTaskExecutor paymentStreamExecutor(PaymentConfig paymentConfig) {
+        int maxConcurrentStreams = paymentConfig.getQuery().getMaxConcurrentStreams();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrentStreams);
+        executor.setMaxPoolSize(maxConcurrentStreams);
+        executor.setQueueCapacity(maxConcurrentStreams * 4);
+        executor.setThreadNamePrefix("payment-stream-");
+        executor.setTaskDecorator(new MdcTaskDecorator());
+        return executor;
+    }
+
+    private boolean useVirtualThreads(PaymentConfig.Execution execution) {
+        if (!execution.isVirtualThreads()) {
+            return false;
+        }
+        if (!JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            logger.warn("Virtual threads requested but running on Java {}, falling back to platform threads",
+                JavaVersion.getJavaVersion());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.foodybuddy.payments.config;
+
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.id.SnowflakeIdGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the paymentId / transactionId generator
+ * The node id comes from payment.identifiers.node-id and must differ per instance.
+ * Startup fails when it is not set: a guessed node id could silently collide.
+ */
+@Configuration
+public class IdGeneratorConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorConfig.class);
+
+    @Bean
+    public IdGenerator idGenerator(PaymentConfig paymentConfig) {
+        int nodeId = paymentConfig.getIdentifiers().getNodeId();
+        if (nodeId < 0) {
+            throw new IllegalStateException("payment.identifiers.node-id (PAYMENT_NODE_ID) is not set. "
+                + "Give each instance its own node id between 0 and " + SnowflakeIdGenerator.MAX_NODE_ID
+                + ", e.g. the pod ordinal");
+        }
+        logger.info("Creating Snowflake id generator - Node id: {}", nodeId);
+        return new SnowflakeIdGenerator(nodeId);
+    }
+}
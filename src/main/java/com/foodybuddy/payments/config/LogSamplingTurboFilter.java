@@ -0,0 +1,31 @@
+package com.foodybuddy.payments.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Drops INFO (and lower) events of the payments loggers for requests that were not
+ * sampled by LoggingContextInterceptor. Runs before the message is formatted, so a
+ * dropped line costs one MDC lookup. WARN and ERROR are always logged.
+ * Registered in logback-spring.xml.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.foodybuddy.payments";
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return "false".equals(MDC.get(LoggingContextInterceptor.MDC_SAMPLED)) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+}
@@ -0,0 +1,65 @@
+package com.foodybuddy.payments.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Puts the request's paymentId / orderId path variables into the MDC, so log lines carry
+ * them as structured fields instead of formatting them into every message, and decides
+ * whether this request's INFO lines are sampled (see LogSamplingTurboFilter).
+ */
+public class LoggingContextInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String MDC_PAYMENT_ID = "paymentId";
+    public static final String MDC_ORDER_ID = "orderId";
+    public static final String MDC_SAMPLED = "sampled";
+
+    private final double infoSampleRate;
+
+    public LoggingContextInterceptor(double infoSampleRate) {
+        this.infoSampleRate = infoSampleRate;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object attribute = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (attribute instanceof Map<?, ?> pathVariables) {
+            putIfPresent(MDC_PAYMENT_ID, pathVariables.get(MDC_PAYMENT_ID));
+            putIfPresent(MDC_ORDER_ID, pathVariables.get(MDC_ORDER_ID));
+        }
+        if (infoSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= infoSampleRate) {
+            MDC.put(MDC_SAMPLED, "false");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        clear();
+    }
+
+    private void putIfPresent(String key, Object value) {
+        if (value != null) {
+            MDC.put(key, value.toString());
+        }
+    }
+
+    private void clear() {
+        MDC.remove(MDC_PAYMENT_ID);
+        MDC.remove(MDC_ORDER_ID);
+        MDC.remove(MDC_SAMPLED);
+    }
+}
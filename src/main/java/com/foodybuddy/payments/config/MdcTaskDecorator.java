@@ -0,0 +1,50 @@
+package com.foodybuddy.payments.config;
+
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs each task with the MDC of the thread that submitted it, so log lines written on
+ * executor threads keep the request's paymentId / orderId and its sampling decision
+ * (see LoggingContextInterceptor). The worker's own context is restored afterwards.
+ */
+public class MdcTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return withContext(MDC.getCopyOfContextMap(), runnable);
+    }
+
+    /**
+     * An executor whose tasks run with the MDC of the thread calling this method, for work
+     * handed off later by another thread, such as a CompletableFuture stage that the
+     * gateway completes
+     */
+    public static Executor capturing(Executor executor) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return task -> executor.execute(withContext(context, task));
+    }
+
+    private static Runnable withContext(Map<String, String> context, Runnable runnable) {
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                runnable.run();
+            } finally {
+                setContext(previous);
+            }
+        };
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.foodybuddy.payments.config;
 
+import com.foodybuddy.payments.entity.PaymentStatus;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration class for payment processing settings
  * Maps properties from application.yml to Java objects
@@ -13,6 +19,21 @@ public class PaymentConfig {
     
     private Processing processing = new Processing();
     private Simulation simulation = new Simulation();
+    private Execution execution = new Execution();
+    private Idempotency idempotency = new Idempotency();
+    private Batch batch = new Batch();
+    private Query query = new Query();
+    private Cache cache = new Cache();
+    private Identifiers identifiers = new Identifiers();
+    private Outbox outbox = new Outbox();
+    private Logging logging = new Logging();
+    private Stats stats = new Stats();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Partitions partitions = new Partitions();
+    private Archive archive = new Archive();
+    private Journal journal = new Journal();
+    private Admission admission = new Admission();
+    private Replicas replicas = new Replicas();
     
     public Processing getProcessing() {
         return processing;
@@ -30,10 +51,134 @@ public class PaymentConfig {
         this.simulation = simulation;
     }
     
+    public Execution getExecution() {
+        return execution;
+    }
+    
+    public void setExecution(Execution execution) {
+        this.execution = execution;
+    }
+    
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+    
+    public void setIdempotency(Idempotency idempotency) {
+        this.idempotency = idempotency;
+    }
+    
+    public Batch getBatch() {
+        return batch;
+    }
+    
+    public void setBatch(Batch batch) {
+        this.batch = batch;
+    }
+    
+    public Query getQuery() {
+        return query;
+    }
+    
+    public void setQuery(Query query) {
+        this.query = query;
+    }
+    
+    public Cache getCache() {
+        return cache;
+    }
+    
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+    
+    public Identifiers getIdentifiers() {
+        return identifiers;
+    }
+    
+    public void setIdentifiers(Identifiers identifiers) {
+        this.identifiers = identifiers;
+    }
+    
+    public Outbox getOutbox() {
+        return outbox;
+    }
+    
+    public void setOutbox(Outbox outbox) {
+        this.outbox = outbox;
+    }
+    
+    public Logging getLogging() {
+        return logging;
+    }
+    
+    public void setLogging(Logging logging) {
+        this.logging = logging;
+    }
+    
+    public Stats getStats() {
+        return stats;
+    }
+    
+    public void setStats(Stats stats) {
+        this.stats = stats;
+    }
+    
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+    
+    public Partitions getPartitions() {
+        return partitions;
+    }
+    
+    public void setPartitions(Partitions partitions) {
+        this.partitions = partitions;
+    }
+    
+    public Archive getArchive() {
+        return archive;
+    }
+    
+    public void setArchive(Archive archive) {
+        this.archive = archive;
+    }
+    
+    public Journal getJournal() {
+        return journal;
+    }
+    
+    public void setJournal(Journal journal) {
+        this.journal = journal;
+    }
+    
+    public Admission getAdmission() {
+        return admission;
+    }
+    
+    public void setAdmission(Admission admission) {
+        this.admission = admission;
+    }
+    
+    public Replicas getReplicas() {
+        return replicas;
+    }
+    
+    public void setReplicas(Replicas replicas) {
+        this.replicas = replicas;
+    }
+    
     public static class Processing {
         private long timeout = 30000;
         private int retryAttempts = 3;
         private double successRate = 0.9;
+        private String defaultCurrency = "USD";
+        private long attemptTimeout = 10000;  // ms per gateway attempt; timeout bounds all attempts together
+        private long retryBackoff = 100;  // ms, doubled per retry, with full jitter
+        private long retryMaxBackoff = 2000;
         
         public long getTimeout() {
             return timeout;
@@ -58,11 +203,47 @@ public class PaymentConfig {
         public void setSuccessRate(double successRate) {
             this.successRate = successRate;
         }
+        
+        public String getDefaultCurrency() {
+            return defaultCurrency;
+        }
+        
+        public void setDefaultCurrency(String defaultCurrency) {
+            this.defaultCurrency = defaultCurrency;
+        }
+        
+        public long getAttemptTimeout() {
+            return attemptTimeout;
+        }
+        
+        public void setAttemptTimeout(long attemptTimeout) {
+            this.attemptTimeout = attemptTimeout;
+        }
+        
+        public long getRetryBackoff() {
+            return retryBackoff;
+        }
+        
+        public void setRetryBackoff(long retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+        
+        public long getRetryMaxBackoff() {
+            return retryMaxBackoff;
+        }
+        
+        public void setRetryMaxBackoff(long retryMaxBackoff) {
+            this.retryMaxBackoff = retryMaxBackoff;
+        }
     }
     
     public static class Simulation {
         private boolean enabled = true;
         private long processingDelay = 2000;
+        private int schedulerThreads = 2;
+        private double errorRate = 0.0;  // share of calls that fail with a gateway error
+        private double latencySpikeRate = 0.0;  // share of calls answered after latencySpikeDelay instead
+        private long latencySpikeDelay = 10000;
         
         public boolean isEnabled() {
             return enabled;
@@ -79,5 +260,763 @@ public class PaymentConfig {
         public void setProcessingDelay(long processingDelay) {
             this.processingDelay = processingDelay;
         }
+        
+        public int getSchedulerThreads() {
+            return schedulerThreads;
+        }
+        
+        public void setSchedulerThreads(int schedulerThreads) {
+            this.schedulerThreads = schedulerThreads;
+        }
+        
+        public double getErrorRate() {
+            return errorRate;
+        }
+        
+        public void setErrorRate(double errorRate) {
+            this.errorRate = errorRate;
+        }
+        
+        public double getLatencySpikeRate() {
+            return latencySpikeRate;
+        }
+        
+        public void setLatencySpikeRate(double latencySpikeRate) {
+            this.latencySpikeRate = latencySpikeRate;
+        }
+        
+        public long getLatencySpikeDelay() {
+            return latencySpikeDelay;
+        }
+        
+        public void setLatencySpikeDelay(long latencySpikeDelay) {
+            this.latencySpikeDelay = latencySpikeDelay;
+        }
+    }
+    
+    /**
+     * Controls where the gateway step runs. In async mode the payment is accepted as
+     * PROCESSING and the gateway result is stored on a separate executor, so request threads
+     * and pooled JDBC connections are not held for the gateway round trip.
+     * With virtual threads enabled (JDK 21+), request handling and gateway calls run on
+     * virtual threads; maxConcurrentGatewayCalls still caps how many calls are in flight.
+     */
+    public static class Execution {
+        private boolean async = false;
+        private int gatewayPoolSize = 32;
+        private boolean virtualThreads = false;
+        private int maxConcurrentGatewayCalls = 200;
+        private long gatewayPermitWait = 1000;  // ms to wait for a gateway permit before rejecting
+        
+        public boolean isAsync() {
+            return async;
+        }
+        
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+        
+        public int getGatewayPoolSize() {
+            return gatewayPoolSize;
+        }
+        
+        public void setGatewayPoolSize(int gatewayPoolSize) {
+            this.gatewayPoolSize = gatewayPoolSize;
+        }
+        
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+        
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+        
+        public int getMaxConcurrentGatewayCalls() {
+            return maxConcurrentGatewayCalls;
+        }
+        
+        public void setMaxConcurrentGatewayCalls(int maxConcurrentGatewayCalls) {
+            this.maxConcurrentGatewayCalls = maxConcurrentGatewayCalls;
+        }
+        
+        public long getGatewayPermitWait() {
+            return gatewayPermitWait;
+        }
+        
+        public void setGatewayPermitWait(long gatewayPermitWait) {
+            this.gatewayPermitWait = gatewayPermitWait;
+        }
+    }
+    
+    public static class Idempotency {
+        private long cacheSize = 10000;
+        private long cacheTtl = 86400000;
+        private long maxWait = 30000;
+        private long claimLease = 60000;  // ms before an unfinished claim may be taken over
+        
+        public long getCacheSize() {
+            return cacheSize;
+        }
+        
+        public void setCacheSize(long cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+        
+        public long getCacheTtl() {
+            return cacheTtl;
+        }
+        
+        public void setCacheTtl(long cacheTtl) {
+            this.cacheTtl = cacheTtl;
+        }
+        
+        public long getMaxWait() {
+            return maxWait;
+        }
+        
+        public void setMaxWait(long maxWait) {
+            this.maxWait = maxWait;
+        }
+        
+        public long getClaimLease() {
+            return claimLease;
+        }
+        
+        public void setClaimLease(long claimLease) {
+            this.claimLease = claimLease;
+        }
+    }
+    
+    public static class Batch {
+        private int maxSize = 100;  // capped at execution.max-concurrent-gateway-calls
+        
+        public int getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+    
+    public static class Query {
+        private int defaultPageSize = 50;
+        private int maxPageSize = 500;
+        private int streamFetchSize = 500;
+        private int maxConcurrentStreams = 4;
+        private long streamTimeout = 600000;
+        private int maxLookupIds = 1000;
+        private int lookupChunkSize = 500;
+        
+        public int getDefaultPageSize() {
+            return defaultPageSize;
+        }
+        
+        public void setDefaultPageSize(int defaultPageSize) {
+            this.defaultPageSize = defaultPageSize;
+        }
+        
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+        
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+        
+        public int getStreamFetchSize() {
+            return streamFetchSize;
+        }
+        
+        public void setStreamFetchSize(int streamFetchSize) {
+            this.streamFetchSize = streamFetchSize;
+        }
+        
+        public int getMaxConcurrentStreams() {
+            return maxConcurrentStreams;
+        }
+        
+        public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+            this.maxConcurrentStreams = maxConcurrentStreams;
+        }
+        
+        public long getStreamTimeout() {
+            return streamTimeout;
+        }
+        
+        public void setStreamTimeout(long streamTimeout) {
+            this.streamTimeout = streamTimeout;
+        }
+        
+        public int getMaxLookupIds() {
+            return maxLookupIds;
+        }
+        
+        public void setMaxLookupIds(int maxLookupIds) {
+            this.maxLookupIds = maxLookupIds;
+        }
+        
+        public int getLookupChunkSize() {
+            return lookupChunkSize;
+        }
+        
+        public void setLookupChunkSize(int lookupChunkSize) {
+            this.lookupChunkSize = lookupChunkSize;
+        }
+    }
+    
+    public static class Cache {
+        private boolean enabled = true;
+        private long maxSize = 100000;
+        private long activeTtl = 2000;
+        private long terminalTtl = 600000;
+        private long coalesceWait = 1000;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public long getActiveTtl() {
+            return activeTtl;
+        }
+        
+        public void setActiveTtl(long activeTtl) {
+            this.activeTtl = activeTtl;
+        }
+        
+        public long getTerminalTtl() {
+            return terminalTtl;
+        }
+        
+        public void setTerminalTtl(long terminalTtl) {
+            this.terminalTtl = terminalTtl;
+        }
+        
+        public long getCoalesceWait() {
+            return coalesceWait;
+        }
+        
+        public void setCoalesceWait(long coalesceWait) {
+            this.coalesceWait = coalesceWait;
+        }
+    }
+    
+    public static class Identifiers {
+        private int nodeId = -1;  // Unset; startup fails until it is configured
+        
+        public int getNodeId() {
+            return nodeId;
+        }
+        
+        public void setNodeId(int nodeId) {
+            this.nodeId = nodeId;
+        }
+    }
+    
+    public static class Outbox {
+        private boolean relayEnabled = true;
+        private long relayInterval = 200;
+        private int batchSize = 500;
+        private long retention = 604800000;  // 7 days
+        private long sseTimeout = 1800000;  // 30 minutes
+        private int maxSubscribers = 1000;
+        private long heartbeatInterval = 15000;
+        private String fileSinkPath = "";
+        
+        public boolean isRelayEnabled() {
+            return relayEnabled;
+        }
+        
+        public void setRelayEnabled(boolean relayEnabled) {
+            this.relayEnabled = relayEnabled;
+        }
+        
+        public long getRelayInterval() {
+            return relayInterval;
+        }
+        
+        public void setRelayInterval(long relayInterval) {
+            this.relayInterval = relayInterval;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public long getRetention() {
+            return retention;
+        }
+        
+        public void setRetention(long retention) {
+            this.retention = retention;
+        }
+        
+        public long getSseTimeout() {
+            return sseTimeout;
+        }
+        
+        public void setSseTimeout(long sseTimeout) {
+            this.sseTimeout = sseTimeout;
+        }
+        
+        public int getMaxSubscribers() {
+            return maxSubscribers;
+        }
+        
+        public void setMaxSubscribers(int maxSubscribers) {
+            this.maxSubscribers = maxSubscribers;
+        }
+        
+        public long getHeartbeatInterval() {
+            return heartbeatInterval;
+        }
+        
+        public void setHeartbeatInterval(long heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+        }
+        
+        public String getFileSinkPath() {
+            return fileSinkPath;
+        }
+        
+        public void setFileSinkPath(String fileSinkPath) {
+            this.fileSinkPath = fileSinkPath;
+        }
+    }
+    
+    public static class Logging {
+        private double infoSampleRate = 1.0;  // share of requests whose INFO lines are logged
+        
+        public double getInfoSampleRate() {
+            return infoSampleRate;
+        }
+        
+        public void setInfoSampleRate(double infoSampleRate) {
+            this.infoSampleRate = infoSampleRate;
+        }
+    }
+    
+    public static class Stats {
+        private boolean rollupEnabled = true;
+        private long flushInterval = 10000;  // ms between rollups of the in-memory counters
+        private int maxBuckets = 1500;  // largest time range a stats request may span, in buckets
+        
+        public boolean isRollupEnabled() {
+            return rollupEnabled;
+        }
+        
+        public void setRollupEnabled(boolean rollupEnabled) {
+            this.rollupEnabled = rollupEnabled;
+        }
+        
+        public long getFlushInterval() {
+            return flushInterval;
+        }
+        
+        public void setFlushInterval(long flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+        
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+        
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+    }
+    
+    public static class CircuitBreaker {
+        private double failureRateThreshold = 0.5;  // opens when this share of recent calls failed
+        private int slidingWindowSize = 20;  // recent calls considered, per payment method
+        private int minimumCalls = 10;
+        private long openDuration = 10000;  // ms before trial calls are let through again
+        private int halfOpenCalls = 3;  // successful trial calls needed to close again
+        
+        public double getFailureRateThreshold() {
+            return failureRateThreshold;
+        }
+        
+        public void setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+        }
+        
+        public int getSlidingWindowSize() {
+            return slidingWindowSize;
+        }
+        
+        public void setSlidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = slidingWindowSize;
+        }
+        
+        public int getMinimumCalls() {
+            return minimumCalls;
+        }
+        
+        public void setMinimumCalls(int minimumCalls) {
+            this.minimumCalls = minimumCalls;
+        }
+        
+        public long getOpenDuration() {
+            return openDuration;
+        }
+        
+        public void setOpenDuration(long openDuration) {
+            this.openDuration = openDuration;
+        }
+        
+        public int getHalfOpenCalls() {
+            return halfOpenCalls;
+        }
+        
+        public void setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+        }
+    }
+    
+    public static class Partitions {
+        private boolean maintenanceEnabled = true;
+        private int monthsAhead = 3;  // future monthly partitions kept ready for inserts
+        
+        public boolean isMaintenanceEnabled() {
+            return maintenanceEnabled;
+        }
+        
+        public void setMaintenanceEnabled(boolean maintenanceEnabled) {
+            this.maintenanceEnabled = maintenanceEnabled;
+        }
+        
+        public int getMonthsAhead() {
+            return monthsAhead;
+        }
+        
+        public void setMonthsAhead(int monthsAhead) {
+            this.monthsAhead = monthsAhead;
+        }
+    }
+    
+    public static class Archive {
+        private boolean enabled = true;
+        private long interval = 3600000;  // ms between archival runs
+        private int batchSize = 1000;  // rows moved per transaction
+        // Days after creation before a payment in the status is archived; other statuses stay
+        private Map<PaymentStatus, Integer> retentionDays = new EnumMap<>(Map.of(
+                PaymentStatus.FAILED, 30,
+                PaymentStatus.CANCELLED, 30,
+                PaymentStatus.REFUNDED, 180,
+                PaymentStatus.COMPLETED, 540));
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public long getInterval() {
+            return interval;
+        }
+        
+        public void setInterval(long interval) {
+            this.interval = interval;
+        }
+        
+        public int getBatchSize() {
+            return batchSize;
+        }
+        
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+        
+        public Map<PaymentStatus, Integer> getRetentionDays() {
+            return retentionDays;
+        }
+        
+        public void setRetentionDays(Map<PaymentStatus, Integer> retentionDays) {
+            this.retentionDays = retentionDays;
+        }
+    }
+    
+    public static class Journal {
+        private boolean enabled = false;
+        private String directory = "data/payment-journal";
+        private int segmentSize = 64 * 1024 * 1024;  // bytes per memory-mapped segment file
+        private int maxPending = 100000;  // journaled payments not yet in Postgres before /process answers 503
+        private long drainInterval = 50;  // ms between drains when the journal is empty
+        private int drainBatchSize = 500;
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public String getDirectory() {
+            return directory;
+        }
+        
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+        
+        public int getSegmentSize() {
+            return segmentSize;
+        }
+        
+        public void setSegmentSize(int segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+        
+        public int getMaxPending() {
+            return maxPending;
+        }
+        
+        public void setMaxPending(int maxPending) {
+            this.maxPending = maxPending;
+        }
+        
+        public long getDrainInterval() {
+            return drainInterval;
+        }
+        
+        public void setDrainInterval(long drainInterval) {
+            this.drainInterval = drainInterval;
+        }
+        
+        public int getDrainBatchSize() {
+            return drainBatchSize;
+        }
+        
+        public void setDrainBatchSize(int drainBatchSize) {
+            this.drainBatchSize = drainBatchSize;
+        }
+    }
+    
+    public static class Admission {
+        private boolean enabled = false;
+        // Sized so that reads, in flight and queued, never hold more than about 90 of
+        // Tomcat's 200 request threads
+        private Limit write = new Limit(50, 10, 150, 50, 1000, 5000);
+        private Limit pointRead = new Limit(20, 2, 50, 20, 50, 100);
+        private Limit list = new Limit(4, 1, 10, 4, 50, 2000);
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public Limit getWrite() {
+            return write;
+        }
+        
+        public void setWrite(Limit write) {
+            this.write = write;
+        }
+        
+        public Limit getPointRead() {
+            return pointRead;
+        }
+        
+        public void setPointRead(Limit pointRead) {
+            this.pointRead = pointRead;
+        }
+        
+        public Limit getList() {
+            return list;
+        }
+        
+        public void setList(Limit list) {
+            this.list = list;
+        }
+        
+        /**
+         * Concurrency limit of one traffic class, see AdaptiveLimiter
+         */
+        public static class Limit {
+            private int initialLimit;
+            private int minLimit;
+            private int maxLimit;
+            private int maxQueued;  // requests waiting for a slot before the class answers 429
+            private long maxWait;  // ms a queued request waits before it is rejected
+            private long latencyTarget;  // ms; slower responses shrink the limit
+            
+            public Limit() {
+            }
+            
+            public Limit(int initialLimit, int minLimit, int maxLimit, int maxQueued, long maxWait, 
+                         long latencyTarget) {
+                this.initialLimit = initialLimit;
+                this.minLimit = minLimit;
+                this.maxLimit = maxLimit;
+                this.maxQueued = maxQueued;
+                this.maxWait = maxWait;
+                this.latencyTarget = latencyTarget;
+            }
+            
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+            
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+            
+            public int getMinLimit() {
+                return minLimit;
+            }
+            
+            public void setMinLimit(int minLimit) {
+                this.minLimit = minLimit;
+            }
+            
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+            
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+            
+            public int getMaxQueued() {
+                return maxQueued;
+            }
+            
+            public void setMaxQueued(int maxQueued) {
+                this.maxQueued = maxQueued;
+            }
+            
+            public long getMaxWait() {
+                return maxWait;
+            }
+            
+            public void setMaxWait(long maxWait) {
+                this.maxWait = maxWait;
+            }
+            
+            public long getLatencyTarget() {
+                return latencyTarget;
+            }
+            
+            public void setLatencyTarget(long latencyTarget) {
+                this.latencyTarget = latencyTarget;
+            }
+        }
+    }
+    
+    public static class Replicas {
+        private boolean enabled = false;
+        private List<String> urls = new ArrayList<>();  // JDBC urls of the read replicas
+        private String username;
+        private String password;
+        private int poolSize = 10;  // connections per replica
+        private long connectionTimeout = 1000;  // ms, then the read falls back to the primary
+        private long maxLag = 1000;  // ms of replay lag before a replica stops taking reads
+        private long checkInterval = 1000;  // ms between lag checks
+        private long stickyWindow = 5000;  // ms a client's reads stay on the primary after its write
+        private String clientHeader = "X-Client-Id";  // identifies clients for stickiness, else the remote address
+        
+        public boolean isEnabled() {
+            return enabled;
+        }
+        
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+        
+        public List<String> getUrls() {
+            return urls;
+        }
+        
+        public void setUrls(List<String> urls) {
+            this.urls = urls;
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public void setUsername(String username) {
+            this.username = username;
+        }
+        
+        public String getPassword() {
+            return password;
+        }
+        
+        public void setPassword(String password) {
+            this.password = password;
+        }
+        
+        public int getPoolSize() {
+            return poolSize;
+        }
+        
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+        
+        public long getConnectionTimeout() {
+            return connectionTimeout;
+        }
+        
+        public void setConnectionTimeout(long connectionTimeout) {
+            this.connectionTimeout = connectionTimeout;
+        }
+        
+        public long getMaxLag() {
+            return maxLag;
+        }
+        
+        public void setMaxLag(long maxLag) {
+            this.maxLag = maxLag;
+        }
+        
+        public long getCheckInterval() {
+            return checkInterval;
+        }
+        
+        public void setCheckInterval(long checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+        
+        public long getStickyWindow() {
+            return stickyWindow;
+        }
+        
+        public void setStickyWindow(long stickyWindow) {
+            this.stickyWindow = stickyWindow;
+        }
+        
+        public String getClientHeader() {
+            return clientHeader;
+        }
+        
+        public void setClientHeader(String clientHeader) {
+            this.clientHeader = clientHeader;
+        }
     }
 }
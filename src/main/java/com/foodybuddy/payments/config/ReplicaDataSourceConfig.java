@@ -0,0 +1,79 @@
+package com.foodybuddy.payments.config;
+
+import com.foodybuddy.payments.replica.ReplicaRoutingDataSource;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSources for read-replica routing, active with payment.replicas.enabled
+ *
+ * The primary pool is built from spring.datasource as Spring Boot would, and is the one
+ * Flyway migrates. The application's DataSource routes read-only transactions to the
+ * replicas in payment.replicas.urls (see ReplicaRoutingDataSource). Replica pools hand
+ * out read-only connections and give up after connection-timeout, so an unreachable
+ * replica costs a read that long at most before it falls back to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "payment.replicas", name = "enabled")
+public class ReplicaDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaDataSourceConfig.class);
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             PaymentConfig paymentConfig, PaymentMetrics paymentMetrics) {
+        PaymentConfig.Replicas config = paymentConfig.getReplicas();
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (String url : config.getUrls()) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url);
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setUsername(config.getUsername());
+            replica.setPassword(config.getPassword());
+            replica.setMaximumPoolSize(config.getPoolSize());
+            replica.setConnectionTimeout(config.getConnectionTimeout());
+            replica.setReadOnly(true);
+            // Start the pool without a connection, so a replica that is down at startup
+            // only keeps reads on the primary
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, replica));
+        }
+        logger.info("Routing read-only transactions to read replicas - Replicas: {}, Max lag: {}ms, Sticky window: {}ms",
+            replicas.size(), config.getMaxLag(), config.getStickyWindow());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, paymentMetrics);
+    }
+
+    /**
+     * The DataSource used by JPA and JdbcTemplate. Connections are fetched lazily, once
+     * the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
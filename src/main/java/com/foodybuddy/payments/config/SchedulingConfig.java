@@ -0,0 +1,13 @@
+package com.foodybuddy.payments.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (outbox relay and event dispatch)
+ * They run on Spring Boot's taskScheduler, sized by spring.task.scheduling.pool.size
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
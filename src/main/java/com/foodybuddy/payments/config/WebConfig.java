@@ -0,0 +1,53 @@
+package com.foodybuddy.payments.config;
+
+import com.foodybuddy.payments.admission.AdmissionControlInterceptor;
+import com.foodybuddy.payments.replica.ReadYourWritesInterceptor;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration
+ * Streaming responses (NDJSON exports) run on their own small pool, so a few long
+ * exports cannot take over the request threads or the connection pool.
+ * Every request gets its logging context (MDC ids, INFO sampling) from LoggingContextInterceptor,
+ * then passes admission control per traffic class (payment.admission.enabled). With read
+ * replicas, ReadYourWritesInterceptor keeps a client's reads on the primary after its writes.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final PaymentConfig paymentConfig;
+    private final PaymentMetrics paymentMetrics;
+    private final AsyncTaskExecutor paymentStreamExecutor;
+    private final ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor;
+
+    public WebConfig(PaymentConfig paymentConfig, PaymentMetrics paymentMetrics,
+                     @Qualifier("paymentStreamExecutor") AsyncTaskExecutor paymentStreamExecutor,
+                     ObjectProvider<ReadYourWritesInterceptor> readYourWritesInterceptor) {
+        this.paymentConfig = paymentConfig;
+        this.paymentMetrics = paymentMetrics;
+        this.paymentStreamExecutor = paymentStreamExecutor;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(paymentStreamExecutor);
+        configurer.setDefaultTimeout(paymentConfig.getQuery().getStreamTimeout());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LoggingContextInterceptor(paymentConfig.getLogging().getInfoSampleRate()));
+        readYourWritesInterceptor.ifAvailable(registry::addInterceptor);
+        if (paymentConfig.getAdmission().isEnabled()) {
+            registry.addInterceptor(new AdmissionControlInterceptor(paymentConfig.getAdmission(), paymentMetrics));
+        }
+    }
+}
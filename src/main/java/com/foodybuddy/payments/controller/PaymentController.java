@@ -1,94 +1,216 @@
 package com.foodybuddy.payments.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodybuddy.payments.admission.AdmissionControlled;
+import com.foodybuddy.payments.admission.TrafficClass;
+import com.foodybuddy.payments.dto.BatchPaymentRequest;
+import com.foodybuddy.payments.dto.BatchPaymentResponse;
+import com.foodybuddy.payments.dto.PaymentLookupRequest;
+import com.foodybuddy.payments.dto.PaymentLookupResponse;
+import com.foodybuddy.payments.dto.PaymentPage;
 import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.dto.PaymentStatsResponse;
 import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.dto.StatsGranularity;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.service.PaymentEventBroadcaster;
 import com.foodybuddy.payments.service.PaymentService;
+import com.foodybuddy.payments.service.PaymentStatsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/payments")
 @CrossOrigin(origins = "http://localhost:3000")
 public class PaymentController {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
+    private static final String NDJSON = "application/x-ndjson";
     private final PaymentService paymentService;
+    private final PaymentEventBroadcaster paymentEventBroadcaster;
+    private final PaymentStatsService paymentStatsService;
+    private final ObjectMapper objectMapper;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, PaymentEventBroadcaster paymentEventBroadcaster,
+                             PaymentStatsService paymentStatsService, ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.paymentEventBroadcaster = paymentEventBroadcaster;
+        this.paymentStatsService = paymentStatsService;
+        this.objectMapper = objectMapper;
         logger.info("PaymentController initialized with payment service");
     }
     
     @PostMapping("/process")
-    public ResponseEntity<PaymentResponse> processPayment(@RequestBody ProcessPaymentRequest request) {
-        logger.info("Processing payment - OrderId: {}, Amount: {}, Method: {}", 
-            request.getOrderId(), request.getAmount(), request.getMethod());
+    @AdmissionControlled(TrafficClass.WRITE)
+    public ResponseEntity<PaymentResponse> processPayment(
+            @RequestBody ProcessPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        logger.debug("Processing payment - OrderId: {}, Amount: {}, Method: {}, IdempotencyKey: {}", 
+            request.getOrderId(), request.getAmount(), request.getMethod(), idempotencyKey);
         
-        try {
-            PaymentResponse payment = paymentService.processPayment(request);
-            logger.info("Payment processed successfully - PaymentId: {}, Status: {}, TransactionId: {}", 
-                payment.getPaymentId(), payment.getStatus(), payment.getTransactionId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(payment);
-        } catch (Exception e) {
-            logger.error("Failed to process payment for orderId: {}", request.getOrderId(), e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+        PaymentResponse payment = paymentService.processPayment(request, idempotencyKey);
+        logger.debug("Payment processed successfully - PaymentId: {}, Status: {}, TransactionId: {}", 
+            payment.getPaymentId(), payment.getStatus(), payment.getTransactionId());
+        // Async mode hands back the accepted payment before the gateway has answered
+        HttpStatus status = payment.getStatus() == PaymentStatus.PROCESSING 
+            ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(payment);
+    }
+    
+    @PostMapping("/process/batch")
+    @AdmissionControlled(TrafficClass.WRITE)
+    public ResponseEntity<BatchPaymentResponse> processBatch(@RequestBody BatchPaymentRequest request) {
+        logger.info("Processing payment batch - Size: {}", request.getPayments().size());
+        
+        BatchPaymentResponse response = paymentService.processBatch(request.getPayments());
+        logger.info("Payment batch processed - Completed: {}, Failed: {}, Rejected: {}", 
+            response.getCompleted(), response.getFailed(), response.getRejected());
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/{paymentId}")
+    @AdmissionControlled(TrafficClass.POINT_READ)
     public ResponseEntity<PaymentResponse> getPayment(@PathVariable String paymentId) {
-        logger.info("Fetching payment details for paymentId: {}", paymentId);
+        logger.debug("Fetching payment details for paymentId: {}", paymentId);
         
-        try {
-            PaymentResponse payment = paymentService.getPayment(paymentId);
-            logger.info("Payment retrieved successfully - PaymentId: {}, Status: {}", 
-                payment.getPaymentId(), payment.getStatus());
-            return ResponseEntity.ok(payment);
-        } catch (RuntimeException e) {
-            logger.error("Payment not found: {}", paymentId, e);
-            return ResponseEntity.notFound().build();
-        }
+        PaymentResponse payment = paymentService.getPayment(paymentId);
+        logger.debug("Payment retrieved successfully - PaymentId: {}, Status: {}", 
+            payment.getPaymentId(), payment.getStatus());
+        return ResponseEntity.ok(payment);
     }
     
     @GetMapping("/order/{orderId}")
+    @AdmissionControlled(TrafficClass.POINT_READ)
     public ResponseEntity<List<PaymentResponse>> getPaymentsByOrderId(@PathVariable String orderId) {
-        logger.info("Fetching payments for orderId: {}", orderId);
+        logger.debug("Fetching payments for orderId: {}", orderId);
         
         List<PaymentResponse> payments = paymentService.getPaymentsByOrderId(orderId);
-        logger.info("Retrieved {} payments for orderId: {}", payments.size(), orderId);
+        logger.debug("Retrieved {} payments for orderId: {}", payments.size(), orderId);
         return ResponseEntity.ok(payments);
     }
     
+    /**
+     * Payments for many paymentIds and/or orderIds in one call, grouped by orderId
+     */
+    @PostMapping("/lookup")
+    @AdmissionControlled(TrafficClass.LIST)
+    public ResponseEntity<PaymentLookupResponse<?>> lookupPayments(@RequestBody PaymentLookupRequest request) {
+        logger.debug("Looking up payments - PaymentIds: {}, OrderIds: {}, Summary: {}", 
+            request.getPaymentIds() == null ? 0 : request.getPaymentIds().size(), 
+            request.getOrderIds() == null ? 0 : request.getOrderIds().size(), request.isSummary());
+        
+        PaymentLookupResponse<?> response = paymentService.lookupPayments(request);
+        logger.debug("Lookup returned {} orders, {} missing paymentIds", 
+            response.getOrders().size(), response.getMissingPaymentIds().size());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping
-    public ResponseEntity<List<PaymentResponse>> getAllPayments() {
-        logger.info("Fetching all payments");
+    @AdmissionControlled(TrafficClass.LIST)
+    public ResponseEntity<PaymentPage> getPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentMethod method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Fetching payments page - Status: {}, Method: {}, Cursor: {}", status, method, cursor);
         
-        List<PaymentResponse> payments = paymentService.getAllPayments();
-        logger.info("Retrieved {} payments successfully", payments.size());
-        return ResponseEntity.ok(payments);
+        PaymentPage page = paymentService.getPayments(
+                new PaymentSearchCriteria(status, method, from, to), cursor, limit);
+        logger.debug("Retrieved {} payments successfully", page.getItems().size());
+        return ResponseEntity.ok(page);
     }
     
-    @PostMapping("/{paymentId}/refund")
-    public ResponseEntity<PaymentResponse> refundPayment(@PathVariable String paymentId) {
-        logger.info("Processing refund for paymentId: {}", paymentId);
+    /**
+     * Newline-delimited JSON export of every matching payment, written as rows are read
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    @AdmissionControlled(TrafficClass.LIST)
+    public ResponseEntity<StreamingResponseBody> streamPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentMethod method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("Streaming payments - Status: {}, Method: {}, From: {}, To: {}", status, method, from, to);
+        
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria(status, method, from, to);
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            paymentService.streamPayments(criteria, payment -> {
+                try {
+                    objectMapper.writeValue(generator, payment);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    /**
+     * Counts and exact totals by status, method and time bucket, read from the stats
+     * rollups rather than the payments table
+     */
+    @GetMapping("/stats")
+    @AdmissionControlled(TrafficClass.LIST)
+    public ResponseEntity<PaymentStatsResponse> getStats(
+            @RequestParam(required = false) StatsGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.debug("Fetching payment stats - Granularity: {}, From: {}, To: {}", granularity, from, to);
+        
+        return ResponseEntity.ok(paymentStatsService.getStats(granularity, from, to));
+    }
+    
+    /**
+     * Server-Sent Events feed of payment status changes, optionally for a single order
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> paymentEvents(@RequestParam(required = false) String orderId) {
+        logger.info("Subscribing to payment events - OrderId: {}", orderId);
         
         try {
-            PaymentResponse payment = paymentService.refundPayment(paymentId);
-            logger.info("Refund processed successfully - PaymentId: {}, Status: {}", 
-                payment.getPaymentId(), payment.getStatus());
-            return ResponseEntity.ok(payment);
-        } catch (RuntimeException e) {
-            logger.error("Failed to process refund for paymentId: {}", paymentId, e);
-            return ResponseEntity.badRequest().build();
+            return ResponseEntity.ok(paymentEventBroadcaster.subscribe(orderId));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Rejecting payment event subscription - OrderId: {}, Reason: {}", orderId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         }
     }
     
+    @PostMapping("/{paymentId}/refund")
+    @AdmissionControlled(TrafficClass.WRITE)
+    public ResponseEntity<PaymentResponse> refundPayment(@PathVariable String paymentId) {
+        logger.debug("Processing refund for paymentId: {}", paymentId);
+        
+        PaymentResponse payment = paymentService.refundPayment(paymentId);
+        logger.debug("Refund processed successfully - PaymentId: {}, Status: {}", 
+            payment.getPaymentId(), payment.getStatus());
+        return ResponseEntity.ok(payment);
+    }
+    
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         logger.debug("Health check endpoint called");
@@ -0,0 +1,93 @@
+package com.foodybuddy.payments.controller;
+
+import com.foodybuddy.payments.exception.AdmissionRejectedException;
+import com.foodybuddy.payments.exception.IdempotencyConflictException;
+import com.foodybuddy.payments.exception.InvalidPaymentRequestException;
+import com.foodybuddy.payments.exception.PaymentConflictException;
+import com.foodybuddy.payments.exception.PaymentNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Maps payment errors to application/problem+json responses
+ *
+ * Expected errors are logged on one line without a stack trace; only unexpected
+ * exceptions are logged at ERROR with their stack. Spring MVC's own exceptions
+ * (malformed body, bad parameter types, ...) get problem details from the base class.
+ */
+@RestControllerAdvice
+public class PaymentExceptionHandler extends ResponseEntityExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentExceptionHandler.class);
+
+    @ExceptionHandler(PaymentNotFoundException.class)
+    public ResponseEntity<ProblemDetail> handleNotFound(PaymentNotFoundException e) {
+        logger.debug("Payment not found: {}", e.getPaymentId());
+        ProblemDetail problem = problem(HttpStatus.NOT_FOUND, "Payment not found", e);
+        problem.setProperty("paymentId", e.getPaymentId());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(problem);
+    }
+
+    @ExceptionHandler({PaymentConflictException.class, IdempotencyConflictException.class,
+            OptimisticLockingFailureException.class})
+    public ResponseEntity<ProblemDetail> handleConflict(RuntimeException e) {
+        logger.warn("Payment conflict: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(problem(HttpStatus.CONFLICT, "Payment conflict", e));
+    }
+
+    @ExceptionHandler(InvalidPaymentRequestException.class)
+    public ResponseEntity<ProblemDetail> handleInvalidPayment(InvalidPaymentRequestException e) {
+        logger.info("Invalid payment request: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(problem(HttpStatus.UNPROCESSABLE_ENTITY, "Invalid payment request", e));
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ProblemDetail> handleAdmissionRejected(AdmissionRejectedException e) {
+        logger.debug("Request not admitted - Class: {}", e.getTrafficClass());
+        ProblemDetail problem = problem(HttpStatus.TOO_MANY_REQUESTS, "Too many requests", e);
+        problem.setProperty("trafficClass", e.getTrafficClass());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(problem);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ProblemDetail> handleBadRequest(IllegalArgumentException e) {
+        logger.info("Bad payment request: {}", e.getMessage());
+        return ResponseEntity.badRequest()
+                .body(problem(HttpStatus.BAD_REQUEST, "Bad request", e));
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> handleSaturated(RejectedExecutionException e) {
+        logger.warn("Payment processing saturated: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem(HttpStatus.SERVICE_UNAVAILABLE, "Payment processing saturated", e));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ProblemDetail> handleUnexpected(RuntimeException e) {
+        logger.error("Unexpected error handling payment request", e);
+        return ResponseEntity.internalServerError()
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error"));
+    }
+
+    private ProblemDetail problem(HttpStatus status, String title, RuntimeException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, e.getMessage());
+        problem.setTitle(title);
+        return problem;
+    }
+}
@@ -0,0 +1,21 @@
+package com.foodybuddy.payments.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.result.method.annotation.ResponseEntityExceptionHandler;
+
+/**
+ * Problem details for WebFlux's own exceptions (malformed body, bad parameter types, ...)
+ * under the reactive profile
+ *
+ * Ordered ahead of PaymentExceptionHandler, whose Spring MVC base class would otherwise
+ * claim these exceptions and fail on its servlet-only arguments. Payment errors have no
+ * handler here and fall through to PaymentExceptionHandler as on the servlet stack.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReactiveExceptionHandler extends ResponseEntityExceptionHandler {
+}
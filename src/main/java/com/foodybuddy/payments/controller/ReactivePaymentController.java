@@ -0,0 +1,153 @@
+package com.foodybuddy.payments.controller;
+
+import com.foodybuddy.payments.dto.BatchPaymentRequest;
+import com.foodybuddy.payments.dto.BatchPaymentResponse;
+import com.foodybuddy.payments.dto.PaymentLookupRequest;
+import com.foodybuddy.payments.dto.PaymentLookupResponse;
+import com.foodybuddy.payments.dto.PaymentPage;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.dto.PaymentStatsResponse;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.dto.StatsGranularity;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.service.PaymentService;
+import com.foodybuddy.payments.service.PaymentStatsService;
+import com.foodybuddy.payments.service.ReactivePaymentService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * WebFlux equivalent of PaymentController, active with the reactive profile
+ *
+ * Processing, lookups, refunds and the NDJSON export are non-blocking end to end.
+ * Batches, bulk lookups, pages and stats reuse the JDBC services on boundedElastic.
+ * The SSE event feed is only served by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/payments")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactivePaymentController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePaymentController.class);
+    private static final String NDJSON = "application/x-ndjson";
+    private final ReactivePaymentService reactivePaymentService;
+    private final PaymentService paymentService;
+    private final PaymentStatsService paymentStatsService;
+
+    public ReactivePaymentController(ReactivePaymentService reactivePaymentService, PaymentService paymentService,
+                                     PaymentStatsService paymentStatsService) {
+        this.reactivePaymentService = reactivePaymentService;
+        this.paymentService = paymentService;
+        this.paymentStatsService = paymentStatsService;
+        logger.info("ReactivePaymentController initialized with reactive payment service");
+    }
+
+    @PostMapping("/process")
+    public Mono<ResponseEntity<PaymentResponse>> processPayment(
+            @RequestBody ProcessPaymentRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        logger.debug("Processing payment - OrderId: {}, Amount: {}, Method: {}, IdempotencyKey: {}",
+            request.getOrderId(), request.getAmount(), request.getMethod(), idempotencyKey);
+
+        return reactivePaymentService.processPayment(request, idempotencyKey)
+                .map(payment -> ResponseEntity.status(payment.getStatus() == PaymentStatus.PROCESSING
+                        ? HttpStatus.ACCEPTED : HttpStatus.CREATED).body(payment));
+    }
+
+    @PostMapping("/process/batch")
+    public Mono<BatchPaymentResponse> processBatch(@RequestBody BatchPaymentRequest request) {
+        logger.info("Processing payment batch - Size: {}", request.getPayments().size());
+
+        return Mono.fromCallable(() -> paymentService.processBatch(request.getPayments()))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping("/{paymentId}")
+    public Mono<PaymentResponse> getPayment(@PathVariable String paymentId) {
+        logger.debug("Fetching payment details for paymentId: {}", paymentId);
+
+        return reactivePaymentService.getPayment(paymentId);
+    }
+
+    @GetMapping("/order/{orderId}")
+    public Mono<List<PaymentResponse>> getPaymentsByOrderId(@PathVariable String orderId) {
+        logger.debug("Fetching payments for orderId: {}", orderId);
+
+        return reactivePaymentService.getPaymentsByOrderId(orderId);
+    }
+
+    @PostMapping("/lookup")
+    public Mono<PaymentLookupResponse<?>> lookupPayments(@RequestBody PaymentLookupRequest request) {
+        logger.debug("Looking up payments - Summary: {}", request.isSummary());
+
+        return Mono.<PaymentLookupResponse<?>>fromCallable(() -> paymentService.lookupPayments(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @GetMapping
+    public Mono<PaymentPage> getPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentMethod method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        logger.debug("Fetching payments page - Status: {}, Method: {}, Cursor: {}", status, method, cursor);
+
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria(status, method, from, to);
+        return Mono.fromCallable(() -> paymentService.getPayments(criteria, cursor, limit))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Newline-delimited JSON export of every matching payment, written as rows are read
+     */
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public Flux<PaymentResponse> streamPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentMethod method,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("Streaming payments - Status: {}, Method: {}, From: {}, To: {}", status, method, from, to);
+
+        return reactivePaymentService.streamPayments(new PaymentSearchCriteria(status, method, from, to));
+    }
+
+    @GetMapping("/stats")
+    public Mono<PaymentStatsResponse> getStats(
+            @RequestParam(required = false) StatsGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.debug("Fetching payment stats - Granularity: {}, From: {}, To: {}", granularity, from, to);
+
+        return Mono.fromCallable(() -> paymentStatsService.getStats(granularity, from, to))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @PostMapping("/{paymentId}/refund")
+    public Mono<PaymentResponse> refundPayment(@PathVariable String paymentId) {
+        logger.debug("Processing refund for paymentId: {}", paymentId);
+
+        return reactivePaymentService.refundPayment(paymentId);
+    }
+
+    @GetMapping("/health")
+    public Mono<String> health() {
+        logger.debug("Health check endpoint called");
+        return Mono.just("Payments service is healthy");
+    }
+}
@@ -0,0 +1,77 @@
+package com.foodybuddy.payments.dto;
+
+import com.foodybuddy.payments.entity.PaymentStatus;
+
+/**
+ * Outcome of one entry of a batch payment request, reported at the entry's index
+ * Rejected entries carry an error and no paymentId
+ */
+public class BatchPaymentItemResult {
+    private int index;
+    private String orderId;
+    private String paymentId;
+    private PaymentStatus status;
+    private String transactionId;
+    private String error;
+    
+    public BatchPaymentItemResult() {}
+    
+    public BatchPaymentItemResult(int index, String orderId, String paymentId, PaymentStatus status,
+                                  String transactionId, String error) {
+        this.index = index;
+        this.orderId = orderId;
+        this.paymentId = paymentId;
+        this.status = status;
+        this.transactionId = transactionId;
+        this.error = error;
+    }
+    
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,23 @@
+package com.foodybuddy.payments.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchPaymentRequest {
+    private List<ProcessPaymentRequest> payments = new ArrayList<>();
+    
+    public BatchPaymentRequest() {}
+    
+    public BatchPaymentRequest(List<ProcessPaymentRequest> payments) {
+        this.payments = payments;
+    }
+    
+    // Getters and Setters
+    public List<ProcessPaymentRequest> getPayments() {
+        return payments;
+    }
+    
+    public void setPayments(List<ProcessPaymentRequest> payments) {
+        this.payments = payments;
+    }
+}
@@ -0,0 +1,63 @@
+package com.foodybuddy.payments.dto;
+
+import java.util.List;
+
+public class BatchPaymentResponse {
+    private int total;
+    private int completed;
+    private int failed;
+    private int rejected;
+    private List<BatchPaymentItemResult> results;
+    
+    public BatchPaymentResponse() {}
+    
+    public BatchPaymentResponse(int total, int completed, int failed, int rejected,
+                                List<BatchPaymentItemResult> results) {
+        this.total = total;
+        this.completed = completed;
+        this.failed = failed;
+        this.rejected = rejected;
+        this.results = results;
+    }
+    
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+    
+    public void setTotal(int total) {
+        this.total = total;
+    }
+    
+    public int getCompleted() {
+        return completed;
+    }
+    
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+    
+    public int getFailed() {
+        return failed;
+    }
+    
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<BatchPaymentItemResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<BatchPaymentItemResult> results) {
+        this.results = results;
+    }
+}
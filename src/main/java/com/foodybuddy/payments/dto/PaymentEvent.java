@@ -0,0 +1,105 @@
+package com.foodybuddy.payments.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Payload of a payment status change, as stored in the outbox and sent to subscribers
+ */
+public class PaymentEvent {
+    public static final String STATUS_CHANGED = "PAYMENT_STATUS_CHANGED";
+    
+    private String type;
+    private String paymentId;
+    private String orderId;
+    @JsonUnwrapped
+    private Money amount;
+    private PaymentStatus status;
+    private PaymentMethod method;
+    private String transactionId;
+    private LocalDateTime occurredAt;
+    
+    public PaymentEvent() {}
+    
+    public static PaymentEvent statusChanged(Payment payment) {
+        PaymentEvent event = new PaymentEvent();
+        event.type = STATUS_CHANGED;
+        event.paymentId = payment.getPaymentId();
+        event.orderId = payment.getOrderId();
+        event.amount = payment.getAmount();
+        event.status = payment.getStatus();
+        event.method = payment.getMethod();
+        event.transactionId = payment.getTransactionId();
+        event.occurredAt = LocalDateTime.now();
+        return event;
+    }
+    
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+    
+    public void setType(String type) {
+        this.type = type;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public Money getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public void setMethod(PaymentMethod method) {
+        this.method = method;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
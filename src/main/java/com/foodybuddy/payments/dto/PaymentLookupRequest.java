@@ -0,0 +1,47 @@
+package com.foodybuddy.payments.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payments to look up in one call, by paymentId and/or orderId. summary asks for the
+ * PaymentSummary projection instead of full PaymentResponses.
+ */
+public class PaymentLookupRequest {
+    private List<String> paymentIds = new ArrayList<>();
+    private List<String> orderIds = new ArrayList<>();
+    private boolean summary;
+    
+    public PaymentLookupRequest() {}
+    
+    public PaymentLookupRequest(List<String> paymentIds, List<String> orderIds, boolean summary) {
+        this.paymentIds = paymentIds;
+        this.orderIds = orderIds;
+        this.summary = summary;
+    }
+    
+    // Getters and Setters
+    public List<String> getPaymentIds() {
+        return paymentIds;
+    }
+    
+    public void setPaymentIds(List<String> paymentIds) {
+        this.paymentIds = paymentIds;
+    }
+    
+    public List<String> getOrderIds() {
+        return orderIds;
+    }
+    
+    public void setOrderIds(List<String> orderIds) {
+        this.orderIds = orderIds;
+    }
+    
+    public boolean isSummary() {
+        return summary;
+    }
+    
+    public void setSummary(boolean summary) {
+        this.summary = summary;
+    }
+}
@@ -0,0 +1,38 @@
+package com.foodybuddy.payments.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a bulk lookup: payments grouped by orderId (PaymentResponse or PaymentSummary
+ * items), plus the requested paymentIds that matched nothing
+ */
+public class PaymentLookupResponse<T> {
+    private Map<String, List<T>> orders = new LinkedHashMap<>();
+    private List<String> missingPaymentIds = List.of();
+    
+    public PaymentLookupResponse() {}
+    
+    public PaymentLookupResponse(Map<String, List<T>> orders, List<String> missingPaymentIds) {
+        this.orders = orders;
+        this.missingPaymentIds = missingPaymentIds;
+    }
+    
+    // Getters and Setters
+    public Map<String, List<T>> getOrders() {
+        return orders;
+    }
+    
+    public void setOrders(Map<String, List<T>> orders) {
+        this.orders = orders;
+    }
+    
+    public List<String> getMissingPaymentIds() {
+        return missingPaymentIds;
+    }
+    
+    public void setMissingPaymentIds(List<String> missingPaymentIds) {
+        this.missingPaymentIds = missingPaymentIds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.foodybuddy.payments.dto;
+
+import java.util.List;
+
+/**
+ * One page of payments, newest first
+ * nextCursor is null on the last page
+ */
+public class PaymentPage {
+    private List<PaymentResponse> items;
+    private String nextCursor;
+    
+    public PaymentPage() {}
+    
+    public PaymentPage(List<PaymentResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<PaymentResponse> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<PaymentResponse> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -1,5 +1,8 @@
 package com.foodybuddy.payments.dto;
 
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
 import com.foodybuddy.payments.entity.PaymentMethod;
 import com.foodybuddy.payments.entity.PaymentStatus;
 import java.time.LocalDateTime;
@@ -8,7 +11,8 @@ public class PaymentResponse {
     private Long id;
     private String paymentId;
     private String orderId;
-    private Double amount;
+    @JsonUnwrapped
+    private Money amount;
     private PaymentStatus status;
     private PaymentMethod method;
     private String transactionId;
@@ -17,7 +21,7 @@ public class PaymentResponse {
     
     public PaymentResponse() {}
     
-    public PaymentResponse(Long id, String paymentId, String orderId, Double amount, 
+    public PaymentResponse(Long id, String paymentId, String orderId, Money amount, 
                           PaymentStatus status, PaymentMethod method, String transactionId,
                           LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
@@ -31,6 +35,20 @@ public class PaymentResponse {
         this.updatedAt = updatedAt;
     }
     
+    public static PaymentResponse from(Payment payment) {
+        return new PaymentResponse(
+                payment.getId(),
+                payment.getPaymentId(),
+                payment.getOrderId(),
+                payment.getAmount(),
+                payment.getStatus(),
+                payment.getMethod(),
+                payment.getTransactionId(),
+                payment.getCreatedAt(),
+                payment.getUpdatedAt()
+        );
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -56,11 +74,11 @@ public class PaymentResponse {
         this.orderId = orderId;
     }
     
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
     
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
     
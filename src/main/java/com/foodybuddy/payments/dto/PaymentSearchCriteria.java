@@ -0,0 +1,58 @@
+package com.foodybuddy.payments.dto;
+
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Filters for listing payments. All fields are optional; the time range is
+ * inclusive of from and exclusive of to, both on createdAt.
+ */
+public class PaymentSearchCriteria {
+    private PaymentStatus status;
+    private PaymentMethod method;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    
+    public PaymentSearchCriteria() {}
+    
+    public PaymentSearchCriteria(PaymentStatus status, PaymentMethod method, LocalDateTime from, LocalDateTime to) {
+        this.status = status;
+        this.method = method;
+        this.from = from;
+        this.to = to;
+    }
+    
+    // Getters and Setters
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public void setMethod(PaymentMethod method) {
+        this.method = method;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+}
@@ -0,0 +1,74 @@
+package com.foodybuddy.payments.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Count and exact total of payments in one currency. bucketStart, status and method are
+ * set when the entry is broken down by them and omitted from JSON otherwise.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PaymentStatsEntry {
+    private LocalDateTime bucketStart;
+    private PaymentStatus status;
+    private PaymentMethod method;
+    private long count;
+    @JsonUnwrapped
+    private Money amount;
+    
+    public PaymentStatsEntry() {}
+    
+    public PaymentStatsEntry(LocalDateTime bucketStart, PaymentStatus status, PaymentMethod method,
+                             long count, Money amount) {
+        this.bucketStart = bucketStart;
+        this.status = status;
+        this.method = method;
+        this.count = count;
+        this.amount = amount;
+    }
+    
+    // Getters and Setters
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+    
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public void setMethod(PaymentMethod method) {
+        this.method = method;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public void setCount(long count) {
+        this.count = count;
+    }
+    
+    public Money getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
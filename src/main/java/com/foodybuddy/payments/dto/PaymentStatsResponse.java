@@ -0,0 +1,80 @@
+package com.foodybuddy.payments.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Payment counts and totals for a time range, per status, per method and per bucket.
+ * Payments are attributed to the bucket of their createdAt and counted under their
+ * current status.
+ */
+public class PaymentStatsResponse {
+    private StatsGranularity granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<PaymentStatsEntry> byStatus;
+    private List<PaymentStatsEntry> byMethod;
+    private List<PaymentStatsEntry> buckets;
+    
+    public PaymentStatsResponse() {}
+    
+    public PaymentStatsResponse(StatsGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                List<PaymentStatsEntry> byStatus, List<PaymentStatsEntry> byMethod,
+                                List<PaymentStatsEntry> buckets) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.byStatus = byStatus;
+        this.byMethod = byMethod;
+        this.buckets = buckets;
+    }
+    
+    // Getters and Setters
+    public StatsGranularity getGranularity() {
+        return granularity;
+    }
+    
+    public void setGranularity(StatsGranularity granularity) {
+        this.granularity = granularity;
+    }
+    
+    public LocalDateTime getFrom() {
+        return from;
+    }
+    
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+    
+    public LocalDateTime getTo() {
+        return to;
+    }
+    
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+    
+    public List<PaymentStatsEntry> getByStatus() {
+        return byStatus;
+    }
+    
+    public void setByStatus(List<PaymentStatsEntry> byStatus) {
+        this.byStatus = byStatus;
+    }
+    
+    public List<PaymentStatsEntry> getByMethod() {
+        return byMethod;
+    }
+    
+    public void setByMethod(List<PaymentStatsEntry> byMethod) {
+        this.byMethod = byMethod;
+    }
+    
+    public List<PaymentStatsEntry> getBuckets() {
+        return buckets;
+    }
+    
+    public void setBuckets(List<PaymentStatsEntry> buckets) {
+        this.buckets = buckets;
+    }
+}
@@ -0,0 +1,59 @@
+package com.foodybuddy.payments.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.PaymentStatus;
+
+/**
+ * Slim view of a payment: ids, status and amount. Selected straight into this class by
+ * PaymentRepository, so no Payment entity is loaded for it.
+ */
+public class PaymentSummary {
+    private String paymentId;
+    private String orderId;
+    private PaymentStatus status;
+    @JsonUnwrapped
+    private Money amount;
+    
+    public PaymentSummary() {}
+    
+    public PaymentSummary(String paymentId, String orderId, PaymentStatus status, long amountMinor, String currency) {
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.status = status;
+        this.amount = Money.ofMinor(amountMinor, currency);
+    }
+    
+    // Getters and Setters
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public Money getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(Money amount) {
+        this.amount = amount;
+    }
+}
@@ -2,9 +2,13 @@ package com.foodybuddy.payments.dto;
 
 import com.foodybuddy.payments.entity.PaymentMethod;
 
+import java.math.BigDecimal;
+
 public class ProcessPaymentRequest {
     private String orderId;
-    private Double amount;
+    // Decimal in major units; currency defaults to payment.processing.default-currency
+    private BigDecimal amount;
+    private String currency;
     private PaymentMethod method;
     private String cardNumber;
     private String cardHolderName;
@@ -13,7 +17,7 @@ public class ProcessPaymentRequest {
     
     public ProcessPaymentRequest() {}
     
-    public ProcessPaymentRequest(String orderId, Double amount, PaymentMethod method) {
+    public ProcessPaymentRequest(String orderId, BigDecimal amount, PaymentMethod method) {
         this.orderId = orderId;
         this.amount = amount;
         this.method = method;
@@ -28,14 +32,22 @@ public class ProcessPaymentRequest {
         this.orderId = orderId;
     }
     
-    public Double getAmount() {
+    public BigDecimal getAmount() {
         return amount;
     }
     
-    public void setAmount(Double amount) {
+    public void setAmount(BigDecimal amount) {
         this.amount = amount;
     }
     
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+    
     public PaymentMethod getMethod() {
         return method;
     }
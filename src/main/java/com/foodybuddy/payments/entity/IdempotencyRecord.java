@@ -0,0 +1,108 @@
+package com.foodybuddy.payments.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Claim on an Idempotency-Key sent to POST /api/payments/process
+ * The unique index on idempotency_key makes this table the source of truth for
+ * deduplication across instances; the row points at the payment created for the key.
+ * status and claimedAt tell a live claim from a failed or abandoned one (see V10).
+ */
+@Entity
+@Table(name = "payment_idempotency_keys")
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "idempotency_key", nullable = false, unique = true)
+    private String idempotencyKey;
+    
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+    
+    @Column(name = "request_fingerprint", nullable = false, length = 64)
+    private String requestFingerprint;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status;
+    
+    @Column(name = "claimed_at", nullable = false)
+    private LocalDateTime claimedAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public IdempotencyRecord() {
+        this.createdAt = LocalDateTime.now();
+        this.claimedAt = createdAt;
+        this.status = IdempotencyStatus.CLAIMED;
+    }
+    
+    public IdempotencyRecord(String idempotencyKey, String paymentId, String requestFingerprint) {
+        this();
+        this.idempotencyKey = idempotencyKey;
+        this.paymentId = paymentId;
+        this.requestFingerprint = requestFingerprint;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getRequestFingerprint() {
+        return requestFingerprint;
+    }
+    
+    public void setRequestFingerprint(String requestFingerprint) {
+        this.requestFingerprint = requestFingerprint;
+    }
+    
+    public IdempotencyStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(IdempotencyStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getClaimedAt() {
+        return claimedAt;
+    }
+    
+    public void setClaimedAt(LocalDateTime claimedAt) {
+        this.claimedAt = claimedAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.foodybuddy.payments.entity;
+
+/**
+ * State of an Idempotency-Key claim
+ */
+public enum IdempotencyStatus {
+    // An instance holds the claim and is processing the payment
+    CLAIMED,
+    // The payment for the key was stored
+    COMPLETED,
+    // Processing failed, possibly after the gateway was called
+    FAILED
+}
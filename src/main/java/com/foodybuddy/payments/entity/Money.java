@@ -0,0 +1,128 @@
+package com.foodybuddy.payments.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An exact amount of money: a long count of the currency's minor units (cents for USD,
+ * yen for JPY) plus its ISO 4217 code
+ *
+ * Stored as the amount_minor and currency columns, so sums in SQL are integer arithmetic.
+ * In JSON it appears as a decimal "amount" and a "currency" code, which DTOs unwrap into
+ * their own fields.
+ */
+@Embeddable
+public class Money {
+
+    @Column(name = "amount_minor", nullable = false)
+    private long minorUnits;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency;
+
+    protected Money() {
+    }
+
+    private Money(long minorUnits, String currency) {
+        this.minorUnits = minorUnits;
+        this.currency = currency;
+    }
+
+    public static Money ofMinor(long minorUnits, String currency) {
+        return new Money(minorUnits, currencyOf(currency).getCurrencyCode());
+    }
+
+    /**
+     * Convert a decimal amount, rejecting values with more decimals than the currency has
+     */
+    @JsonCreator
+    public static Money of(@JsonProperty("amount") BigDecimal amount, @JsonProperty("currency") String currency) {
+        if (amount == null) {
+            throw new IllegalArgumentException("amount is required");
+        }
+        Currency iso = currencyOf(currency);
+        try {
+            long minorUnits = amount.setScale(fractionDigits(iso), RoundingMode.UNNECESSARY)
+                    .movePointRight(fractionDigits(iso))
+                    .longValueExact();
+            return new Money(minorUnits, iso.getCurrencyCode());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "amount " + amount.toPlainString() + " is not a valid " + iso.getCurrencyCode() + " amount");
+        }
+    }
+
+    @JsonIgnore
+    public long getMinorUnits() {
+        return minorUnits;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * The amount in major units, with exactly the currency's number of decimals
+     */
+    public BigDecimal getAmount() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits(currencyOf(currency)));
+    }
+
+    @JsonIgnore
+    public boolean isPositive() {
+        return minorUnits > 0;
+    }
+
+    public Money plus(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot add " + other.currency + " to " + currency);
+        }
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    private static Currency currencyOf(String code) {
+        if (code == null) {
+            throw new IllegalArgumentException("currency is required");
+        }
+        try {
+            return Currency.getInstance(code);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown currency: " + code);
+        }
+    }
+
+    // Pseudo-currencies (XAU, XXX, ...) report -1; treat them as having no minor unit
+    private static int fractionDigits(Currency currency) {
+        return Math.max(currency.getDefaultFractionDigits(), 0);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return minorUnits == other.minorUnits && Objects.equals(currency, other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(minorUnits, currency);
+    }
+
+    @Override
+    public String toString() {
+        return getAmount().toPlainString() + " " + currency;
+    }
+}
@@ -0,0 +1,117 @@
+package com.foodybuddy.payments.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Payment event waiting in the transactional outbox
+ * Written in the same transaction as the payment change it describes; the relay sets
+ * publishedAt and publishedSeq once the event has been handed to the sinks.
+ */
+@Entity
+@Table(name = "payment_outbox")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_outbox_seq")
+    @SequenceGenerator(name = "payment_outbox_seq", sequenceName = "payment_outbox_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "payment_id", nullable = false)
+    private String paymentId;
+    
+    @Column(name = "order_id", nullable = false)
+    private String orderId;
+    
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    
+    @Column(name = "published_seq")
+    private Long publishedSeq;
+    
+    // Constructors
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public OutboxEvent(String paymentId, String orderId, String eventType, String payload) {
+        this();
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public String getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+    
+    public String getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+    
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+    
+    public Long getPublishedSeq() {
+        return publishedSeq;
+    }
+    
+    public void setPublishedSeq(Long publishedSeq) {
+        this.publishedSeq = publishedSeq;
+    }
+}
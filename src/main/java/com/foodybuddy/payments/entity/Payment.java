@@ -1,23 +1,33 @@
 package com.foodybuddy.payments.entity;
 
+import com.foodybuddy.payments.exception.PaymentConflictException;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+// Partitioned by created_at month (see V7); the primary key is (id, created_at) in the database
+// and payment_id is kept unique through the payment_ids table (see V9)
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_payment_id", columnList = "payment_id"),
+    @Index(name = "idx_payments_order_id", columnList = "order_id"),
+    @Index(name = "idx_payments_status_created_at", columnList = "status, created_at"),
+    @Index(name = "idx_payments_created_at_id", columnList = "created_at, id")
+})
 public class Payment {
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_seq", allocationSize = 50)
     private Long id;
     
-    @Column(name = "payment_id", nullable = false, unique = true)
+    @Column(name = "payment_id", nullable = false)
     private String paymentId;
     
     @Column(name = "order_id", nullable = false)
     private String orderId;
     
-    @Column(nullable = false)
-    private Double amount;
+    @Embedded
+    private Money amount;
     
     @Enumerated(EnumType.STRING)
     private PaymentStatus status;
@@ -28,7 +38,11 @@ public class Payment {
     @Column(name = "transaction_id")
     private String transactionId;
     
-    @Column(name = "created_at")
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at")
@@ -40,7 +54,7 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
     
-    public Payment(String paymentId, String orderId, Double amount, PaymentStatus status, PaymentMethod method) {
+    public Payment(String paymentId, String orderId, Money amount, PaymentStatus status, PaymentMethod method) {
         this();
         this.paymentId = paymentId;
         this.orderId = orderId;
@@ -74,11 +88,11 @@ public class Payment {
         this.orderId = orderId;
     }
     
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
     
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
     
@@ -91,6 +105,17 @@ public class Payment {
         this.updatedAt = LocalDateTime.now();
     }
     
+    /**
+     * Move to the given status, enforcing PaymentStatus#canTransitionTo
+     */
+    public void transitionTo(PaymentStatus newStatus) {
+        if (status != null && !status.canTransitionTo(newStatus)) {
+            throw new PaymentConflictException(
+                "Payment " + paymentId + " cannot move from " + status + " to " + newStatus);
+        }
+        setStatus(newStatus);
+    }
+    
     public PaymentMethod getMethod() {
         return method;
     }
@@ -107,6 +132,14 @@ public class Payment {
         this.transactionId = transactionId;
     }
     
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,166 @@
+package com.foodybuddy.payments.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the payments table, used by the reactive profile
+ * Payment stays the domain object; rows convert to and from it. The amount is kept as
+ * its two columns since Spring Data R2DBC does not read the JPA @Embedded mapping.
+ */
+@Table("payments")
+public class PaymentRow {
+    @Id
+    private Long id;
+    
+    @Column("payment_id")
+    private String paymentId;
+    
+    @Column("order_id")
+    private String orderId;
+    
+    @Column("amount_minor")
+    private long amountMinor;
+    
+    @Column("currency")
+    private String currency;
+    
+    @Column("status")
+    private PaymentStatus status;
+    
+    @Column("method")
+    private PaymentMethod method;
+    
+    @Column("transaction_id")
+    private String transactionId;
+    
+    // Null until inserted, which is how Spring Data tells an insert from an update
+    @Version
+    @Column("version")
+    private Long version;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+    
+    public static PaymentRow from(Payment payment) {
+        PaymentRow row = new PaymentRow();
+        row.setId(payment.getId());
+        row.setPaymentId(payment.getPaymentId());
+        row.setOrderId(payment.getOrderId());
+        row.setAmountMinor(payment.getAmount().getMinorUnits());
+        row.setCurrency(payment.getAmount().getCurrency());
+        row.setStatus(payment.getStatus());
+        row.setMethod(payment.getMethod());
+        row.setTransactionId(payment.getTransactionId());
+        row.setVersion(payment.getVersion());
+        row.setCreatedAt(payment.getCreatedAt());
+        row.setUpdatedAt(payment.getUpdatedAt());
+        return row;
+    }
+    
+    public Payment toPayment() {
+        Payment payment = new Payment(paymentId, orderId, Money.ofMinor(amountMinor, currency), status, method);
+        payment.setId(id);
+        payment.setTransactionId(transactionId);
+        payment.setVersion(version);
+        payment.setCreatedAt(createdAt);
+        payment.setUpdatedAt(updatedAt);
+        return payment;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getPaymentId() {
+        return paymentId;
+    }
+    
+    public void setPaymentId(String paymentId) {
+        this.paymentId = paymentId;
+    }
+    
+    public String getOrderId() {
+        return orderId;
+    }
+    
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+    
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+    
+    public void setAmountMinor(long amountMinor) {
+        this.amountMinor = amountMinor;
+    }
+    
+    public String getCurrency() {
+        return currency;
+    }
+    
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+    
+    public PaymentStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+    
+    public PaymentMethod getMethod() {
+        return method;
+    }
+    
+    public void setMethod(PaymentMethod method) {
+        this.method = method;
+    }
+    
+    public String getTransactionId() {
+        return transactionId;
+    }
+    
+    public void setTransactionId(String transactionId) {
+        this.transactionId = transactionId;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
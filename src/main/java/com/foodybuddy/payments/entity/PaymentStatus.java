@@ -33,4 +33,16 @@ public enum PaymentStatus {
             case FAILED, CANCELLED, REFUNDED -> false;
         };
     }
+
+    /**
+     * Check if the payment can no longer change status
+     */
+    public boolean isTerminal() {
+        for (PaymentStatus next : values()) {
+            if (canTransitionTo(next)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -0,0 +1,27 @@
+package com.foodybuddy.payments.exception;
+
+import com.foodybuddy.payments.admission.TrafficClass;
+
+/**
+ * Thrown when a request's traffic class is at its concurrency limit and its queue is full,
+ * with the seconds the client should wait before retrying
+ */
+public class AdmissionRejectedException extends PaymentException {
+
+    private final TrafficClass trafficClass;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(TrafficClass trafficClass, long retryAfterSeconds) {
+        super("Too many concurrent " + trafficClass + " requests");
+        this.trafficClass = trafficClass;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public TrafficClass getTrafficClass() {
+        return trafficClass;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.foodybuddy.payments.exception;
+
+/**
+ * Thrown when a request reuses an Idempotency-Key whose original request
+ * is still being processed
+ */
+public class IdempotencyConflictException extends PaymentException {
+
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
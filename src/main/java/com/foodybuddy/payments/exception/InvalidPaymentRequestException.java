@@ -0,0 +1,12 @@
+package com.foodybuddy.payments.exception;
+
+/**
+ * Thrown when a well-formed request asks for a payment that cannot be processed,
+ * e.g. a missing amount or an Idempotency-Key reused for a different request
+ */
+public class InvalidPaymentRequestException extends PaymentException {
+
+    public InvalidPaymentRequestException(String message) {
+        super(message);
+    }
+}
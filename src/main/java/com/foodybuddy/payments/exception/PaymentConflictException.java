@@ -0,0 +1,12 @@
+package com.foodybuddy.payments.exception;
+
+/**
+ * Thrown when a payment cannot move to the requested status, either because the
+ * transition is not allowed or because a concurrent request changed it first
+ */
+public class PaymentConflictException extends PaymentException {
+
+    public PaymentConflictException(String message) {
+        super(message);
+    }
+}
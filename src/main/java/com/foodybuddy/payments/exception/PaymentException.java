@@ -0,0 +1,15 @@
+package com.foodybuddy.payments.exception;
+
+/**
+ * Base class for expected payment errors that are answered with a 4xx status
+ *
+ * These describe the request, not a bug, so they are created without a stack trace:
+ * a client probing unknown payment ids must not cost a stack walk per request.
+ * PaymentExceptionHandler maps each subclass to its HTTP status.
+ */
+public abstract class PaymentException extends RuntimeException {
+
+    protected PaymentException(String message) {
+        super(message, null, false, false);
+    }
+}
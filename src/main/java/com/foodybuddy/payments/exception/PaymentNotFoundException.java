@@ -0,0 +1,18 @@
+package com.foodybuddy.payments.exception;
+
+/**
+ * Thrown when no payment exists for the requested paymentId
+ */
+public class PaymentNotFoundException extends PaymentException {
+
+    private final String paymentId;
+
+    public PaymentNotFoundException(String paymentId) {
+        super("Payment not found: " + paymentId);
+        this.paymentId = paymentId;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+}
@@ -0,0 +1,132 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker for the calls to one gateway
+ *
+ * CLOSED lets every call through and tracks the outcome of the last slidingWindowSize
+ * calls; once at least minimumCalls are recorded and the failure share reaches the
+ * threshold it opens. OPEN rejects calls for openDuration, then HALF_OPEN lets
+ * halfOpenCalls trial calls through: any failure reopens it, all succeeding closes it.
+ * Only gateway errors and timeouts count as failures; a declined payment is a success.
+ */
+public class GatewayCircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(GatewayCircuitBreaker.class);
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int windowIndex;
+    private int recordedCalls;
+    private int recordedFailures;
+    private long openedAt;
+    private int trialPermits;
+    private int trialSuccesses;
+
+    public GatewayCircuitBreaker(String name, PaymentConfig.CircuitBreaker config) {
+        this.name = name;
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.minimumCalls = Math.max(1, Math.min(config.getMinimumCalls(), config.getSlidingWindowSize()));
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(config.getOpenDuration());
+        this.halfOpenCalls = Math.max(1, config.getHalfOpenCalls());
+        this.window = new boolean[Math.max(1, config.getSlidingWindowSize())];
+    }
+
+    /**
+     * Ask to make a call. Every permitted call must be followed by onSuccess or onFailure.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialPermits == 0) {
+                return false;
+            }
+            trialPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Give back a permit whose call was never made, such as a retry the caller cancelled
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialPermits < halfOpenCalls) {
+            trialPermits++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++trialSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recordedCalls >= minimumCalls && recordedFailures >= failureRateThreshold * recordedCalls) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == window.length) {
+            if (window[windowIndex]) {
+                recordedFailures--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            recordedFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        if (newState == State.OPEN) {
+            logger.warn("Gateway circuit opened - Gateway: {}, Failures: {}/{}", name, recordedFailures, recordedCalls);
+            openedAt = System.nanoTime();
+        } else {
+            logger.info("Gateway circuit {} - Gateway: {}", newState == State.CLOSED ? "closed" : "half-open", name);
+        }
+        state = newState;
+        trialPermits = halfOpenCalls;
+        trialSuccesses = 0;
+        windowIndex = 0;
+        recordedCalls = 0;
+        recordedFailures = 0;
+    }
+}
@@ -0,0 +1,37 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.entity.PaymentStatus;
+
+/**
+ * Outcome of a gateway authorization
+ * Carries the final payment status and the gateway's reason for it
+ */
+public class GatewayResult {
+    private final PaymentStatus status;
+    private final String message;
+
+    private GatewayResult(PaymentStatus status, String message) {
+        this.status = status;
+        this.message = message;
+    }
+
+    public static GatewayResult approved(String message) {
+        return new GatewayResult(PaymentStatus.COMPLETED, message);
+    }
+
+    public static GatewayResult declined(String message) {
+        return new GatewayResult(PaymentStatus.FAILED, message);
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isApproved() {
+        return status == PaymentStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,27 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment gateway SPI
+ * 
+ * Implementations authorize a payment with an external provider. Calls must not block
+ * the caller: the returned future completes when the provider answers. A declined
+ * payment completes normally with a FAILED result; the future only completes
+ * exceptionally when the gateway itself could not be reached or answered with an error.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Check if this gateway can authorize payments of the given method
+     */
+    boolean supports(PaymentMethod method);
+
+    /**
+     * Authorize the given payment
+     */
+    CompletableFuture<GatewayResult> charge(Payment payment);
+}
@@ -0,0 +1,41 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.entity.PaymentMethod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the gateway responsible for each payment method
+ * 
+ * Every PaymentGateway bean is considered in @Order order; the first one that supports
+ * a method wins. The lookup table is built once at startup.
+ */
+@Component
+public class PaymentGatewayRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentGatewayRegistry.class);
+    private final Map<PaymentMethod, PaymentGateway> gateways = new EnumMap<>(PaymentMethod.class);
+
+    public PaymentGatewayRegistry(List<PaymentGateway> availableGateways) {
+        for (PaymentMethod method : PaymentMethod.values()) {
+            availableGateways.stream()
+                    .filter(gateway -> gateway.supports(method))
+                    .findFirst()
+                    .ifPresent(gateway -> gateways.put(method, gateway));
+        }
+        logger.info("PaymentGatewayRegistry initialized - Gateways: {}", gateways);
+    }
+
+    public PaymentGateway gatewayFor(PaymentMethod method) {
+        PaymentGateway gateway = gateways.get(method);
+        if (gateway == null) {
+            throw new IllegalArgumentException("No payment gateway registered for method: " + method);
+        }
+        return gateway;
+    }
+}
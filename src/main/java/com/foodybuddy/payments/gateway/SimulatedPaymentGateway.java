@@ -0,0 +1,101 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated payment gateway
+ * 
+ * Stands in for a real provider for every payment method. The configured processing
+ * delay is implemented with a shared ScheduledExecutorService, so a pending payment
+ * costs a timer entry rather than a parked thread. Approval follows the configured
+ * success rate. With simulation disabled, payments are approved immediately.
+ * 
+ * For brownout drills, error-rate fails a share of calls with a gateway error and
+ * latency-spike-rate answers a share after latency-spike-delay instead.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedPaymentGateway.class);
+    private final PaymentConfig paymentConfig;
+    private final ScheduledExecutorService scheduler;
+
+    public SimulatedPaymentGateway(PaymentConfig paymentConfig) {
+        this.paymentConfig = paymentConfig;
+        this.scheduler = Executors.newScheduledThreadPool(
+                paymentConfig.getSimulation().getSchedulerThreads(),
+                new CustomizableThreadFactory("payment-gateway-sim-"));
+    }
+
+    @Override
+    public boolean supports(PaymentMethod method) {
+        return true;
+    }
+
+    @Override
+    public CompletableFuture<GatewayResult> charge(Payment payment) {
+        if (!paymentConfig.getSimulation().isEnabled()) {
+            // Real payment processing would go here
+            logger.debug("Simulation disabled, approving payment - PaymentId: {}", payment.getPaymentId());
+            return CompletableFuture.completedFuture(GatewayResult.approved("Simulation disabled"));
+        }
+
+        PaymentConfig.Simulation simulation = paymentConfig.getSimulation();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = random.nextDouble() < simulation.getLatencySpikeRate() 
+            ? simulation.getLatencySpikeDelay() : simulation.getProcessingDelay();
+        boolean error = random.nextDouble() < simulation.getErrorRate();
+        logger.debug("Simulating payment processing with delay: {}ms", delay);
+
+        CompletableFuture<GatewayResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            if (error) {
+                result.completeExceptionally(new IllegalStateException("Simulated gateway error"));
+            } else {
+                result.complete(decide(payment));
+            }
+        }, delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private GatewayResult decide(Payment payment) {
+        // Simulate success/failure based on configured success rate
+        double randomValue = ThreadLocalRandom.current().nextDouble();
+        double successRate = paymentConfig.getProcessing().getSuccessRate();
+
+        if (randomValue > (1 - successRate)) {
+            logger.debug("Payment simulation successful - PaymentId: {}, Random: {}, SuccessRate: {}", 
+                payment.getPaymentId(), randomValue, successRate);
+            return GatewayResult.approved("Simulated approval");
+        }
+        logger.info("Payment simulation declined - PaymentId: {}, Random: {}, SuccessRate: {}", 
+            payment.getPaymentId(), randomValue, successRate);
+        return GatewayResult.declined("Simulated decline");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return "SimulatedPaymentGateway";
+    }
+}
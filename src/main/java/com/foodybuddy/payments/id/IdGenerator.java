@@ -0,0 +1,15 @@
+package com.foodybuddy.payments.id;
+
+/**
+ * Source of paymentId and transactionId values
+ *
+ * Implementations must be thread-safe and return ids that are unique across every
+ * instance of the service. The default is SnowflakeIdGenerator; register a different
+ * IdGenerator bean in place of the one in IdGeneratorConfig to swap it.
+ */
+public interface IdGenerator {
+
+    String nextPaymentId();
+
+    String nextTransactionId();
+}
@@ -0,0 +1,73 @@
+package com.foodybuddy.payments.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Snowflake-style id generator
+ *
+ * Each id is a 63-bit number made of the milliseconds since 2024-01-01 (41 bits), the
+ * node id (10 bits) and a per-millisecond sequence (12 bits), rendered as 13 characters
+ * of Crockford base32 so string order matches generation order.
+ *
+ * Timestamp and sequence share one AtomicLong updated by compare-and-set, so callers
+ * never block. When a millisecond's 4096 sequence values run out, or the wall clock
+ * steps backwards, the sequence carries into the next logical millisecond instead of
+ * waiting for the clock; ids stay unique and ordered per node either way.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    static final long EPOCH_MILLIS = 1704067200000L;  // 2024-01-01T00:00:00Z
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final String TRANSACTION_PREFIX = "TXN_";
+
+    private final long nodeBits;
+    // Logical time in the high bits, sequence in the low SEQUENCE_BITS
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String nextPaymentId() {
+        return encode("", nextId());
+    }
+
+    @Override
+    public String nextTransactionId() {
+        return encode(TRANSACTION_PREFIX, nextId());
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    private static String encode(String prefix, long id) {
+        int length = prefix.length() + ENCODED_LENGTH;
+        char[] chars = new char[length];
+        prefix.getChars(0, prefix.length(), chars, 0);
+        for (int i = length - 1; i >= prefix.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
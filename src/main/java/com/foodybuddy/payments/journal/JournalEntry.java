@@ -0,0 +1,136 @@
+package com.foodybuddy.payments.journal;
+
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * One journaled payment: its sequence number in the journal plus the fields of the
+ * payments row it becomes when drained. The database id is assigned on drain.
+ */
+public class JournalEntry {
+
+    private final long sequence;
+    private final String paymentId;
+    private final String orderId;
+    private final long amountMinor;
+    private final String currency;
+    private final PaymentStatus status;
+    private final PaymentMethod method;
+    private final String transactionId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    JournalEntry(long sequence, Payment payment) {
+        this(sequence, payment.getPaymentId(), payment.getOrderId(), payment.getAmount().getMinorUnits(),
+                payment.getAmount().getCurrency(), payment.getStatus(), payment.getMethod(),
+                payment.getTransactionId(), payment.getCreatedAt(), payment.getUpdatedAt());
+    }
+
+    private JournalEntry(long sequence, String paymentId, String orderId, long amountMinor, String currency,
+                         PaymentStatus status, PaymentMethod method, String transactionId,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.sequence = sequence;
+        this.paymentId = paymentId;
+        this.orderId = orderId;
+        this.amountMinor = amountMinor;
+        this.currency = currency;
+        this.status = status;
+        this.method = method;
+        this.transactionId = transactionId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * A new Payment (no id yet) with the journaled fields
+     */
+    public Payment toPayment() {
+        Payment payment = new Payment(paymentId, orderId, Money.ofMinor(amountMinor, currency), status, method);
+        payment.setTransactionId(transactionId);
+        payment.setCreatedAt(createdAt);
+        payment.setUpdatedAt(updatedAt);
+        return payment;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(paymentId);
+            out.writeUTF(orderId);
+            out.writeLong(amountMinor);
+            out.writeUTF(currency);
+            out.writeUTF(status.name());
+            out.writeUTF(method.name());
+            writeNullable(out, transactionId);
+            writeTime(out, createdAt);
+            writeTime(out, updatedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static JournalEntry decode(long sequence, ByteBuffer payload) {
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return new JournalEntry(sequence,
+                    in.readUTF(),
+                    in.readUTF(),
+                    in.readLong(),
+                    in.readUTF(),
+                    PaymentStatus.valueOf(in.readUTF()),
+                    PaymentMethod.valueOf(in.readUTF()),
+                    readNullable(in),
+                    readTime(in),
+                    readTime(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // LocalDateTime has no zone; UTC is only used as a fixed offset for an exact round trip
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+}
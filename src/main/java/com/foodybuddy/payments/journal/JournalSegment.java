@@ -0,0 +1,123 @@
+package com.foodybuddy.payments.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * One preallocated, memory-mapped journal file
+ *
+ * Records are laid out back to back as [int length][int crc][long sequence][payload]; the
+ * CRC covers sequence and payload. The records of a segment end at the first one whose
+ * length, sequence or CRC does not check out. Appends are serialized by PaymentJournal;
+ * force() may run alongside them.
+ */
+class JournalSegment {
+
+    static final int HEADER_SIZE = 16;
+
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    private volatile long lastSequence;
+
+    private JournalSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    /**
+     * Map the file at path, creating it with the given size if it does not exist yet
+     */
+    static JournalSegment open(Path path, long firstSequence, int size) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long length = Math.max(channel.size(), size);
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            // Mapping grew a new file to its size; make that size durable before any append
+            channel.force(true);
+            return new JournalSegment(path, firstSequence, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map journal segment " + path, e);
+        }
+    }
+
+    /**
+     * Read the records from the start, adding those after afterSequence to entries, up to
+     * the first one that is not intact, and leave the write position there.
+     *
+     * Nothing from that record on was acknowledged: an append is only acknowledged after a
+     * force covering every byte before it, so a record that fails its checks (a torn write,
+     * or a page the crash kept from reaching the disk) and anything after it were never
+     * forced. Those bytes are left as they are; PaymentJournal never appends to a recovered
+     * segment, so they cannot turn up behind a new record and be mistaken for one.
+     */
+    void recover(long afterSequence, List<JournalEntry> entries) {
+        int position = 0;
+        long expected = firstSequence;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()
+                    || buffer.getLong(position + 8) != expected
+                    || buffer.getInt(position + 4) != checksum(position + 8, length + 8)) {
+                break;
+            }
+            if (expected > afterSequence) {
+                entries.add(JournalEntry.decode(expected,
+                        buffer.slice(position + HEADER_SIZE, length)));
+            }
+            lastSequence = expected++;
+            position += HEADER_SIZE + length;
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Write the record at the current position, or return false if it does not fit
+     */
+    boolean append(long sequence, byte[] payload) {
+        int position = buffer.position();
+        if (position + HEADER_SIZE + payload.length > buffer.capacity()) {
+            return false;
+        }
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + HEADER_SIZE, payload);
+        buffer.putInt(position + 4, checksum(position + 8, payload.length + 8));
+        // Length last: a record is only readable once everything before it is in place
+        buffer.putInt(position, payload.length);
+        buffer.position(position + HEADER_SIZE + payload.length);
+        lastSequence = sequence;
+        return true;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private int checksum(int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+}
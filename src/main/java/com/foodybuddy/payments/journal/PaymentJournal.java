@@ -0,0 +1,336 @@
+package com.foodybuddy.payments.journal;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Payment Journal
+ *
+ * Optional local write-ahead log that lets /process answer before its payment reaches
+ * Postgres (payment.journal.enabled). append() writes the payment to a memory-mapped
+ * segment file and returns once it is on disk. PaymentJournalDrainer then inserts
+ * journaled payments in order and reports them drained, which advances the checkpoint
+ * file and deletes the segments behind it.
+ *
+ * Forcing uses group commit: an appender whose record is not on disk yet waits for the
+ * force lock, and the holder forces everything appended so far, so one fsync covers all
+ * the records written while the previous one ran.
+ *
+ * On startup the segments are read back and intact records after the checkpoint are
+ * queued for draining again. The drainer skips payments already in Postgres, so a crash
+ * between its commit and the checkpoint neither loses nor duplicates a payment. Appends
+ * then go to a new segment, never after the recovered records, whose segment may end in
+ * a torn write. The directory is forced after a segment is created and after the
+ * checkpoint is renamed, so neither can vanish in a crash once it is relied on.
+ */
+@Component
+public class PaymentJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournal.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxPending;
+    private final PaymentMetrics paymentMetrics;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    // Oldest first; the last one takes appends
+    private final ConcurrentLinkedDeque<JournalSegment> segments = new ConcurrentLinkedDeque<>();
+    // Journaled but not yet drained, in sequence order, the same payments by paymentId, and
+    // their paymentIds by orderId
+    private final ConcurrentLinkedQueue<JournalEntry> undrained = new ConcurrentLinkedQueue<>();
+    private final Map<String, PaymentResponse> pending = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> pendingByOrder = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile JournalSegment current;
+    private long nextSequence;
+    private volatile long appendedSequence;
+    private volatile long durableSequence;
+
+    public PaymentJournal(PaymentConfig paymentConfig, PaymentMetrics paymentMetrics) {
+        PaymentConfig.Journal journal = paymentConfig.getJournal();
+        this.enabled = journal.isEnabled();
+        this.directory = Path.of(journal.getDirectory());
+        this.segmentSize = journal.getSegmentSize();
+        this.maxPending = journal.getMaxPending();
+        this.paymentMetrics = paymentMetrics;
+        if (enabled) {
+            recover();
+            paymentMetrics.registerJournalPending(pendingCount::get);
+            logger.info("PaymentJournal enabled - Directory: {}, Segment size: {}, Pending: {}", 
+                directory.toAbsolutePath(), segmentSize, pendingCount.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Throw RejectedExecutionException while max-pending payments are waiting for the
+     * database. Called before the gateway, since a charged payment must be journaled.
+     */
+    public void checkCapacity() {
+        if (pendingCount.get() >= maxPending) {
+            throw new RejectedExecutionException("Payment journal has " + maxPending 
+                + " payments waiting for the database");
+        }
+    }
+
+    /**
+     * Journal the payment and return once it is on disk
+     */
+    public PaymentResponse append(Payment payment) {
+        PaymentResponse response = PaymentResponse.from(payment);
+        long sequence;
+        appendLock.lock();
+        try {
+            sequence = nextSequence;
+            JournalEntry entry = new JournalEntry(sequence, payment);
+            byte[] payload = entry.encode();
+            if (!current.append(sequence, payload)) {
+                roll(sequence);
+                if (!current.append(sequence, payload)) {
+                    throw new IllegalStateException("Journal record of " + payload.length 
+                        + " bytes does not fit in a segment");
+                }
+            }
+            nextSequence++;
+            addPending(response);
+            undrained.add(entry);
+            pendingCount.incrementAndGet();
+            appendedSequence = sequence;
+        } finally {
+            appendLock.unlock();
+        }
+        awaitDurable(sequence);
+        return response;
+    }
+
+    /**
+     * The journaled payment if it has not been drained to the database yet, else null
+     */
+    public PaymentResponse pending(String paymentId) {
+        return pending.get(paymentId);
+    }
+
+    /**
+     * The journaled payments of the order that have not been drained to the database yet
+     */
+    public List<PaymentResponse> pendingForOrder(String orderId) {
+        Set<String> paymentIds = pendingByOrder.get(orderId);
+        if (paymentIds == null) {
+            return List.of();
+        }
+        List<PaymentResponse> payments = new ArrayList<>();
+        for (String paymentId : paymentIds) {
+            PaymentResponse payment = pending.get(paymentId);
+            if (payment != null) {
+                payments.add(payment);
+            }
+        }
+        return payments;
+    }
+
+    /**
+     * Up to max of the oldest undrained payments that are on disk, in sequence order.
+     * Only the drainer calls this and drained().
+     */
+    public List<JournalEntry> nextBatch(int max) {
+        long durable = durableSequence;
+        List<JournalEntry> batch = new ArrayList<>();
+        for (JournalEntry entry : undrained) {
+            if (batch.size() == max || entry.getSequence() > durable) {
+                break;
+            }
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * Record that the batch (the head of nextBatch) is committed in the database
+     */
+    public void drained(List<JournalEntry> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (JournalEntry entry : batch) {
+            undrained.poll();
+            removePending(entry.getPaymentId(), entry.getOrderId());
+        }
+        pendingCount.addAndGet(-batch.size());
+        long checkpoint = batch.get(batch.size() - 1).getSequence();
+        writeCheckpoint(checkpoint);
+        deleteSegmentsThrough(checkpoint);
+    }
+
+    // compute() on both sides, so an order's set is never dropped while a payment is added
+    private void addPending(PaymentResponse payment) {
+        pending.put(payment.getPaymentId(), payment);
+        pendingByOrder.compute(payment.getOrderId(), (orderId, paymentIds) -> {
+            Set<String> ids = paymentIds != null ? paymentIds : ConcurrentHashMap.newKeySet();
+            ids.add(payment.getPaymentId());
+            return ids;
+        });
+    }
+
+    private void removePending(String paymentId, String orderId) {
+        pending.remove(paymentId);
+        pendingByOrder.computeIfPresent(orderId, (key, paymentIds) -> {
+            paymentIds.remove(paymentId);
+            return paymentIds.isEmpty() ? null : paymentIds;
+        });
+    }
+
+    private void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            // Read before current: earlier segments were forced when appends moved on
+            long target = appendedSequence;
+            current.force();
+            paymentMetrics.journalForced((int) (target - durableSequence));
+            durableSequence = target;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void roll(long firstSequence) {
+        if (current != null) {
+            current.force();
+        }
+        JournalSegment segment = JournalSegment.open(
+                directory.resolve(SEGMENT_PREFIX + String.format("%020d", firstSequence) + SEGMENT_SUFFIX),
+                firstSequence, segmentSize);
+        forceDirectory();
+        segments.add(segment);
+        current = segment;
+    }
+
+    // Makes created, renamed and deleted entries of the journal directory durable
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to force payment journal directory " + directory, e);
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(directory);
+            long checkpoint = readCheckpoint();
+            List<JournalEntry> recovered = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(PaymentJournal::isSegment).sorted().toList()) {
+                    String name = file.getFileName().toString();
+                    long firstSequence = Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                    JournalSegment segment = JournalSegment.open(file, firstSequence, segmentSize);
+                    segment.recover(checkpoint, recovered);
+                    segments.add(segment);
+                }
+            }
+            long lastSequence = segments.isEmpty() ? checkpoint : Math.max(checkpoint, segments.getLast().getLastSequence());
+            nextSequence = lastSequence + 1;
+            appendedSequence = lastSequence;
+            durableSequence = lastSequence;
+            // A last segment without an intact record was never acknowledged from, and would
+            // collide with the new segment's name
+            JournalSegment last = segments.peekLast();
+            if (last != null && last.getLastSequence() < last.getFirstSequence()) {
+                segments.pollLast();
+                Files.delete(last.getPath());
+            }
+            roll(nextSequence);
+            for (JournalEntry entry : recovered) {
+                undrained.add(entry);
+                addPending(PaymentResponse.from(entry.toPayment()));
+            }
+            pendingCount.set(recovered.size());
+            deleteSegmentsThrough(checkpoint);
+            if (!recovered.isEmpty()) {
+                logger.warn("Recovered undrained journaled payments - Count: {}, After sequence: {}", 
+                    recovered.size(), checkpoint);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover payment journal in " + directory, e);
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT);
+        return Files.exists(file) ? ByteBuffer.wrap(Files.readAllBytes(file)).getLong() : 0;
+    }
+
+    // Written aside and renamed over the old one, so a crash leaves either checkpoint whole
+    private void writeCheckpoint(long sequence) {
+        Path next = directory.resolve(CHECKPOINT + ".next");
+        try {
+            try (FileChannel channel = FileChannel.open(next, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+                channel.force(false);
+            }
+            Files.move(next, directory.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, 
+                StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write payment journal checkpoint", e);
+        }
+    }
+
+    private void deleteSegmentsThrough(long sequence) {
+        JournalSegment oldest = segments.peekFirst();
+        while (oldest != null && oldest != current && oldest.getLastSequence() <= sequence) {
+            segments.pollFirst();
+            try {
+                Files.deleteIfExists(oldest.getPath());
+            } catch (IOException e) {
+                logger.warn("Failed to delete drained journal segment - Path: {}", oldest.getPath(), e);
+            }
+            oldest = segments.peekFirst();
+        }
+    }
+}
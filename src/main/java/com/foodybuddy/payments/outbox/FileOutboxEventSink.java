@@ -0,0 +1,53 @@
+package com.foodybuddy.payments.outbox;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends published events to a local file, one JSON payload per line
+ * Enabled by setting payment.outbox.file-sink-path; meant for local runs and tests
+ */
+@Component
+@ConditionalOnExpression("!'${payment.outbox.file-sink-path:}'.isEmpty()")
+public class FileOutboxEventSink implements OutboxEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileOutboxEventSink.class);
+    private final Path path;
+
+    public FileOutboxEventSink(PaymentConfig paymentConfig) {
+        this.path = Path.of(paymentConfig.getOutbox().getFileSinkPath());
+        logger.info("File outbox sink enabled - Path: {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OutboxEvent event : events) {
+                    writer.write(event.getPayload());
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbox events to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.foodybuddy.payments.outbox;
+
+import com.foodybuddy.payments.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay publishes payment events to
+ *
+ * Every OutboxEventSink bean receives each batch in outbox order. Delivery is
+ * at-least-once: if any sink throws, the batch stays unpublished and is offered to
+ * all sinks again on the next relay run, so sinks should tolerate duplicates
+ * (the event id is stable).
+ */
+public interface OutboxEventSink {
+
+    void publish(List<OutboxEvent> events);
+}
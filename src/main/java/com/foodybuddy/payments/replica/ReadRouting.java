@@ -0,0 +1,45 @@
+package com.foodybuddy.payments.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the current thread's read-only transactions to the primary
+ *
+ * Used for reads that must see a write made just before them: requests of a client that
+ * wrote within the sticky window (ReadYourWritesInterceptor) and idempotent replays.
+ * Has no effect when replicas are disabled.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY_REQUIRED.get() != null;
+    }
+
+    public static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * Run the reads with every read-only transaction on the primary
+     */
+    public static <T> T onPrimary(Supplier<T> reads) {
+        if (isPrimaryRequired()) {
+            return reads.get();
+        }
+        requirePrimary();
+        try {
+            return reads.get();
+        } finally {
+            clear();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.foodybuddy.payments.replica;
+
+import com.foodybuddy.payments.admission.AdmissionControlled;
+import com.foodybuddy.payments.admission.TrafficClass;
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica reads: for payment.replicas.sticky-window after a client's
+ * WRITE request completes, that client's requests read from the primary (ReadRouting).
+ * Clients are told apart by the payment.replicas.client-header header, falling back to
+ * the remote address. The window is kept per instance, so it only covers clients that
+ * come back to the same instance; it should exceed the replicas' max-lag.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.replicas", name = "enabled")
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final String clientHeader;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesInterceptor(PaymentConfig paymentConfig) {
+        PaymentConfig.Replicas replicas = paymentConfig.getReplicas();
+        this.clientHeader = replicas.getClientHeader();
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(replicas.getStickyWindow()))
+                .build();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (recentWriters.getIfPresent(clientKey(request)) != null) {
+            ReadRouting.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ReadRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ReadRouting.clear();
+        if (handler instanceof HandlerMethod method) {
+            AdmissionControlled admission = method.getMethodAnnotation(AdmissionControlled.class);
+            if (admission != null && admission.value() == TrafficClass.WRITE) {
+                recentWriters.put(clientKey(request), Boolean.TRUE);
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String client = clientHeader == null ? null : request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+}
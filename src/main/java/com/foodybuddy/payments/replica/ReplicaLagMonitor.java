@@ -0,0 +1,83 @@
+package com.foodybuddy.payments.replica;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Replica Lag Monitor
+ *
+ * Measures each replica's replay lag every payment.replicas.check-interval and lets it
+ * take reads only while it answers and the lag is within payment.replicas.max-lag.
+ * Replicas start unavailable, so reads stay on the primary until the first check.
+ *
+ * Lag is the age of the last replayed transaction, or zero once everything received
+ * has been replayed, so an idle but caught-up replica does not look stale. Having
+ * replayed everything received only means caught up while the WAL receiver is
+ * streaming: a replica cut off from the primary receives nothing, so it takes no reads
+ * until streaming resumes. Reading the receiver's status needs pg_read_all_stats (or
+ * pg_monitor) for the replica user. A server that is not in recovery (e.g. the primary
+ * itself, used as a local stand-in) has no lag.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.replicas", name = "enabled")
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    // NULL while a replica's WAL receiver is not streaming
+    private static final String LAG_MILLIS = "SELECT (CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END)::bigint";
+
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+    private final long maxLagMillis;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource, PaymentConfig paymentConfig,
+                             PaymentMetrics paymentMetrics) {
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+        this.maxLagMillis = paymentConfig.getReplicas().getMaxLag();
+        replicaRoutingDataSource.getReplicas().forEach(replica -> 
+            paymentMetrics.registerReplica(replica.getName(), replica::getLagMillis, replica::isAvailable));
+        logger.info("ReplicaLagMonitor initialized - Replicas: {}, Max lag: {}ms", 
+            replicaRoutingDataSource.getReplicas().size(), maxLagMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.replicas.check-interval:1000}")
+    public void check() {
+        for (ReplicaRoutingDataSource.Replica replica : replicaRoutingDataSource.getReplicas()) {
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                Long lag = new JdbcTemplate(replica.getDataSource()).queryForObject(LAG_MILLIS, Long.class);
+                if (lag == null) {
+                    replica.unavailable();
+                    if (wasAvailable) {
+                        logger.warn("Read replica not streaming from the primary, reads moved to primary - Replica: {}", 
+                            replica.getName());
+                    }
+                    continue;
+                }
+                long lagMillis = lag;
+                replica.checked(lagMillis, lagMillis <= maxLagMillis);
+                if (replica.isAvailable() && !wasAvailable) {
+                    logger.info("Read replica taking reads - Replica: {}, Lag: {}ms", replica.getName(), lagMillis);
+                } else if (!replica.isAvailable() && wasAvailable) {
+                    logger.warn("Read replica lagging, reads moved to primary - Replica: {}, Lag: {}ms", 
+                        replica.getName(), lagMillis);
+                }
+            } catch (DataAccessException e) {
+                replica.unavailable();
+                if (wasAvailable) {
+                    logger.warn("Read replica unreachable, reads moved to primary - Replica: {}, Reason: {}", 
+                        replica.getName(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.foodybuddy.payments.replica;
+
+import com.foodybuddy.payments.service.PaymentMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a read replica and everything else to the primary
+ *
+ * Replicas take reads round-robin while ReplicaLagMonitor reports them reachable and
+ * within max-lag; with none available, or when ReadRouting pins the thread, reads use
+ * the primary. A replica that fails to hand out a connection is marked unavailable
+ * until its next good lag check, and that read falls back to the primary.
+ *
+ * The routing looks at the transaction's read-only flag, which Spring sets after the
+ * transaction has begun, so this must sit behind a LazyConnectionDataSourceProxy that
+ * defers getConnection() to the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final PaymentMetrics paymentMetrics;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, PaymentMetrics paymentMetrics) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.paymentMetrics = paymentMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary.getConnection();
+        }
+        Replica replica = ReadRouting.isPrimaryRequired() ? null : nextAvailableReplica();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                paymentMetrics.replicaRead("replica");
+                return connection;
+            } catch (SQLException e) {
+                replica.unavailable();
+                logger.warn("Read replica unavailable, reading from primary - Replica: {}, Reason: {}", 
+                    replica.getName(), e.getMessage());
+            }
+        }
+        paymentMetrics.replicaRead("primary");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Connections are routed with the configured credentials");
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+
+    private Replica nextAvailableReplica() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * One replica's pool and its last observed state
+     */
+    public static class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+        private volatile double lagMillis = Double.NaN;
+
+        public Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HikariDataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public double getLagMillis() {
+            return lagMillis;
+        }
+
+        void checked(long lagMillis, boolean available) {
+            this.lagMillis = lagMillis;
+            this.available = available;
+        }
+
+        void unavailable() {
+            this.lagMillis = Double.NaN;
+            this.available = false;
+        }
+    }
+}
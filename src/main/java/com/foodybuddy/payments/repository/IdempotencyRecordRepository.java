@@ -0,0 +1,35 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.entity.IdempotencyRecord;
+import com.foodybuddy.payments.entity.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByIdempotencyKey(String idempotencyKey);
+    
+    /**
+     * Compare-and-set takeover: claims the record again only if it is still in the status
+     * and claimedAt it was read with. Returns the number of rows changed (0 or 1).
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.foodybuddy.payments.entity.IdempotencyStatus.CLAIMED, "
+            + "r.claimedAt = :claimedAt WHERE r.id = :id AND r.status = :status AND r.claimedAt = :previousClaimedAt")
+    int reclaim(@Param("id") Long id, @Param("status") IdempotencyStatus status,
+                @Param("previousClaimedAt") LocalDateTime previousClaimedAt,
+                @Param("claimedAt") LocalDateTime claimedAt);
+    
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status WHERE r.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") IdempotencyStatus status);
+}
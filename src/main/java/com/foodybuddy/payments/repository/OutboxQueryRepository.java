@@ -0,0 +1,105 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.entity.OutboxEvent;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Relay-side queries on the payment_outbox table
+ *
+ * Publishing is serialized across instances with a transaction-scoped advisory lock,
+ * so published_seq values are assigned and committed in order. Tailing by
+ * published_seq therefore never skips an event that commits late.
+ */
+@Repository
+public class OutboxQueryRepository {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long RELAY_LOCK_KEY = 0x7061796f75746278L;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, payment_id, order_id, event_type, payload, created_at, published_at, published_seq";
+
+    private static final RowMapper<OutboxEvent> OUTBOX_EVENT_MAPPER = OutboxQueryRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OutboxQueryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Try to become the publishing relay until the current transaction ends
+     */
+    public boolean tryLockRelay() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", RELAY_LOCK_KEY), Boolean.class);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    public List<OutboxEvent> findUnpublished(int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS
+                + " FROM payment_outbox WHERE published_at IS NULL ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource("limit", limit), OUTBOX_EVENT_MAPPER);
+    }
+
+    /**
+     * Stamp the events as published, assigning published_seq in list order
+     */
+    public void markPublished(List<OutboxEvent> events, LocalDateTime publishedAt) {
+        MapSqlParameterSource[] batch = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("id", event.getId())
+                        .addValue("publishedAt", publishedAt))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("UPDATE payment_outbox SET published_at = :publishedAt, "
+                + "published_seq = nextval('payment_outbox_published_seq') WHERE id = :id", batch);
+    }
+
+    public List<OutboxEvent> findPublishedAfter(long publishedSeq, int limit) {
+        return jdbcTemplate.query(SELECT_COLUMNS
+                + " FROM payment_outbox WHERE published_seq > :publishedSeq ORDER BY published_seq LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("publishedSeq", publishedSeq)
+                        .addValue("limit", limit),
+                OUTBOX_EVENT_MAPPER);
+    }
+
+    public long lastPublishedSeq() {
+        Long last = jdbcTemplate.queryForObject("SELECT MAX(published_seq) FROM payment_outbox",
+                new MapSqlParameterSource(), Long.class);
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * Delete up to limit published events older than the cutoff, returning the number removed
+     */
+    public int deletePublishedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("DELETE FROM payment_outbox WHERE id IN (SELECT id FROM payment_outbox "
+                + "WHERE published_at < :cutoff ORDER BY id LIMIT :limit)",
+                new MapSqlParameterSource()
+                        .addValue("cutoff", cutoff)
+                        .addValue("limit", limit));
+    }
+
+    private static OutboxEvent mapRow(ResultSet rs, int rowNum) throws SQLException {
+        OutboxEvent event = new OutboxEvent(
+                rs.getString("payment_id"),
+                rs.getString("order_id"),
+                rs.getString("event_type"),
+                rs.getString("payload"));
+        event.setId(rs.getLong("id"));
+        event.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        event.setPublishedAt(rs.getObject("published_at", LocalDateTime.class));
+        long publishedSeq = rs.getLong("published_seq");
+        event.setPublishedSeq(rs.wasNull() ? null : publishedSeq);
+        return event;
+    }
+}
@@ -0,0 +1,111 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSummary;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries on payments_archive, where old payments in a final status are moved
+ *
+ * Archived rows never change, so they are read straight into PaymentResponse (or
+ * PaymentSummary) like PaymentQueryRepository does. Moving rows is serialized across
+ * instances with a transaction-scoped advisory lock.
+ */
+@Repository
+public class PaymentArchiveRepository {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long ARCHIVER_LOCK_KEY = 0x7061796172636876L;
+
+    private static final String COLUMNS = "id, payment_id, order_id, amount_minor, currency, status, method, "
+            + "transaction_id, version, created_at, updated_at";
+
+    private static final RowMapper<PaymentSummary> PAYMENT_SUMMARY_MAPPER = PaymentArchiveRepository::mapSummary;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PaymentArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Try to become the archiving instance until the current transaction ends
+     */
+    public boolean tryLockArchiver() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", ARCHIVER_LOCK_KEY), Boolean.class);
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * Move up to limit payments in the status created before the cutoff, oldest first,
+     * from payments to payments_archive in one statement. Returns the number moved.
+     * The outer status check is re-evaluated against rows updated concurrently, so a
+     * payment that just changed status is left for its new status' retention.
+     */
+    public int archive(PaymentStatus status, LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM payments "
+                + "WHERE (id, created_at) IN (SELECT id, created_at FROM payments "
+                + "WHERE status = :status AND created_at < :cutoff ORDER BY created_at LIMIT :limit) "
+                + "AND status = :status RETURNING " + COLUMNS + ") "
+                + "INSERT INTO payments_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                new MapSqlParameterSource()
+                        .addValue("status", status.name())
+                        .addValue("cutoff", cutoff)
+                        .addValue("limit", limit));
+    }
+
+    public Optional<PaymentResponse> findByPaymentId(String paymentId) {
+        return jdbcTemplate.query(PaymentQueryRepository.SELECT_COLUMNS
+                + " FROM payments_archive WHERE payment_id = :paymentId",
+                new MapSqlParameterSource("paymentId", paymentId),
+                PaymentQueryRepository.PAYMENT_RESPONSE_MAPPER).stream().findFirst();
+    }
+
+    public List<PaymentResponse> findByPaymentIds(Collection<String> paymentIds) {
+        return jdbcTemplate.query(PaymentQueryRepository.SELECT_COLUMNS
+                + " FROM payments_archive WHERE payment_id IN (:paymentIds)",
+                new MapSqlParameterSource("paymentIds", paymentIds),
+                PaymentQueryRepository.PAYMENT_RESPONSE_MAPPER);
+    }
+
+    public List<PaymentResponse> findByOrderIds(Collection<String> orderIds) {
+        return jdbcTemplate.query(PaymentQueryRepository.SELECT_COLUMNS
+                + " FROM payments_archive WHERE order_id IN (:orderIds)",
+                new MapSqlParameterSource("orderIds", orderIds),
+                PaymentQueryRepository.PAYMENT_RESPONSE_MAPPER);
+    }
+
+    public List<PaymentSummary> findSummariesByPaymentIds(Collection<String> paymentIds) {
+        return jdbcTemplate.query("SELECT payment_id, order_id, status, amount_minor, currency "
+                + "FROM payments_archive WHERE payment_id IN (:paymentIds)",
+                new MapSqlParameterSource("paymentIds", paymentIds), PAYMENT_SUMMARY_MAPPER);
+    }
+
+    public List<PaymentSummary> findSummariesByOrderIds(Collection<String> orderIds) {
+        return jdbcTemplate.query("SELECT payment_id, order_id, status, amount_minor, currency "
+                + "FROM payments_archive WHERE order_id IN (:orderIds)",
+                new MapSqlParameterSource("orderIds", orderIds), PAYMENT_SUMMARY_MAPPER);
+    }
+
+    private static PaymentSummary mapSummary(ResultSet rs, int rowNum) throws SQLException {
+        String status = rs.getString("status");
+        return new PaymentSummary(
+                rs.getString("payment_id"),
+                rs.getString("order_id"),
+                status == null ? null : PaymentStatus.valueOf(status),
+                rs.getLong("amount_minor"),
+                rs.getString("currency"));
+    }
+}
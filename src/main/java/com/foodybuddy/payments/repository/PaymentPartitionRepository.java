@@ -0,0 +1,72 @@
+package com.foodybuddy.payments.repository;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * DDL for the monthly partitions of payments
+ *
+ * Partitions are named payments_pYYYYMM by the create_payment_partition function (V7),
+ * which is what maps a partition back to its month here.
+ */
+@Repository
+public class PaymentPartitionRepository {
+
+    private static final String PARTITION_PREFIX = "payments_p";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "\\d{6}");
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PaymentPartitionRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the partition for the month if it does not exist yet, returning its name
+     */
+    public String createPartition(YearMonth month) {
+        return jdbcTemplate.queryForObject("SELECT create_payment_partition(:monthStart)",
+                new MapSqlParameterSource("monthStart", month.atDay(1)), String.class);
+    }
+
+    /**
+     * Current partitions of payments by month, oldest first
+     */
+    public Map<YearMonth, String> findPartitions() {
+        Map<YearMonth, String> partitions = new TreeMap<>();
+        jdbcTemplate.query("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'payments'::regclass", (RowCallbackHandler) rs -> {
+            String name = rs.getString("relname");
+            if (PARTITION_NAME.matcher(name).matches()) {
+                partitions.put(YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_MONTH), name);
+            }
+        });
+        return partitions;
+    }
+
+    /**
+     * Drop the month's partition if it holds no rows, returning whether it was dropped.
+     * Dropping locks payments briefly; lock_timeout makes it give up (and fail) rather
+     * than queue writes behind it while a long query holds the table.
+     */
+    public boolean dropIfEmpty(YearMonth month) {
+        String name = PARTITION_PREFIX + month.format(PARTITION_MONTH);
+        jdbcTemplate.getJdbcTemplate().execute("SET LOCAL lock_timeout = '2s'");
+        Boolean hasRows = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + name + ")",
+                Map.of(), Boolean.class);
+        if (Boolean.TRUE.equals(hasRows)) {
+            return false;
+        }
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + name);
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentCursor;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Read-side queries for listing payments
+ *
+ * Rows are mapped straight to PaymentResponse without hydrating entities. Listing is
+ * keyset-paginated on (created_at, id) so every page costs the same regardless of depth,
+ * and the streaming variant reads through a forward-only cursor with a fixed fetch size
+ * so memory stays flat however many rows match. Both read archived payments too: the
+ * filters are pushed into each branch of the UNION ALL, and the ordered scans of the two
+ * (created_at, id) indexes are merged.
+ */
+@Repository
+public class PaymentQueryRepository {
+
+    static final String SELECT_COLUMNS =
+            "SELECT id, payment_id, order_id, amount_minor, currency, status, method, transaction_id, created_at, updated_at";
+
+    // Live and archived payments; a payment is only ever in one of them
+    private static final String LIVE_AND_ARCHIVED = "(" + SELECT_COLUMNS + " FROM payments UNION ALL "
+            + SELECT_COLUMNS + " FROM payments_archive) payments";
+
+    public static final RowMapper<PaymentResponse> PAYMENT_RESPONSE_MAPPER = PaymentQueryRepository::mapRow;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public PaymentQueryRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource,
+                                  PaymentConfig paymentConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(paymentConfig.getQuery().getStreamFetchSize());
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    /**
+     * Fetch up to limit payments ordered newest first, starting after the given cursor
+     */
+    public List<PaymentResponse> findPage(PaymentSearchCriteria criteria, PaymentCursor after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = filteredQuery(criteria, params);
+        if (after != null) {
+            sql.append(" AND (created_at, id) < (:cursorCreatedAt, :cursorId)");
+            params.addValue("cursorCreatedAt", after.getCreatedAt());
+            params.addValue("cursorId", after.getId());
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(sql.toString(), params, PAYMENT_RESPONSE_MAPPER);
+    }
+
+    /**
+     * Hand every matching payment to the consumer, newest first, as rows arrive.
+     * Runs in a read-only transaction because the Postgres driver only honours the
+     * fetch size (a server-side cursor) when autocommit is off.
+     */
+    @Transactional(readOnly = true)
+    public void stream(PaymentSearchCriteria criteria, Consumer<PaymentResponse> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = filteredQuery(criteria, params);
+        sql.append(" ORDER BY created_at DESC, id DESC");
+        streamingJdbcTemplate.query(sql.toString(), params,
+                (RowCallbackHandler) rs -> consumer.accept(mapRow(rs, 0)));
+    }
+
+    private StringBuilder filteredQuery(PaymentSearchCriteria criteria, MapSqlParameterSource params) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" FROM ").append(LIVE_AND_ARCHIVED)
+                .append(" WHERE 1 = 1");
+        if (criteria.getStatus() != null) {
+            sql.append(" AND status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getMethod() != null) {
+            sql.append(" AND method = :method");
+            params.addValue("method", criteria.getMethod().name());
+        }
+        if (criteria.getFrom() != null) {
+            sql.append(" AND created_at >= :from");
+            params.addValue("from", criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            sql.append(" AND created_at < :to");
+            params.addValue("to", criteria.getTo());
+        }
+        return sql;
+    }
+
+    private static PaymentResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        String status = rs.getString("status");
+        String method = rs.getString("method");
+        return new PaymentResponse(
+                rs.getLong("id"),
+                rs.getString("payment_id"),
+                rs.getString("order_id"),
+                Money.ofMinor(rs.getLong("amount_minor"), rs.getString("currency")),
+                status == null ? null : PaymentStatus.valueOf(status),
+                method == null ? null : PaymentMethod.valueOf(method),
+                rs.getString("transaction_id"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("updated_at", LocalDateTime.class)
+        );
+    }
+}
@@ -1,9 +1,16 @@
 package com.foodybuddy.payments.repository;
 
+import com.foodybuddy.payments.dto.PaymentSummary;
 import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +18,28 @@ import java.util.Optional;
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByPaymentId(String paymentId);
     List<Payment> findByOrderId(String orderId);
-    List<Payment> findByStatus(com.foodybuddy.payments.entity.PaymentStatus status);
+    List<Payment> findByStatus(PaymentStatus status);
+    List<Payment> findByPaymentIdIn(Collection<String> paymentIds);
+    List<Payment> findByOrderIdIn(Collection<String> orderIds);
+    
+    /**
+     * Bulk lookups that select only the PaymentSummary columns, skipping entity hydration
+     */
+    @Query("SELECT new com.foodybuddy.payments.dto.PaymentSummary(p.paymentId, p.orderId, p.status, "
+            + "p.amount.minorUnits, p.amount.currency) FROM Payment p WHERE p.paymentId IN :paymentIds")
+    List<PaymentSummary> findSummariesByPaymentIdIn(@Param("paymentIds") Collection<String> paymentIds);
+    
+    @Query("SELECT new com.foodybuddy.payments.dto.PaymentSummary(p.paymentId, p.orderId, p.status, "
+            + "p.amount.minorUnits, p.amount.currency) FROM Payment p WHERE p.orderId IN :orderIds")
+    List<PaymentSummary> findSummariesByOrderIdIn(@Param("orderIds") Collection<String> orderIds);
+    
+    /**
+     * Compare-and-set on status: only moves the payment if it is still in the expected
+     * status, bumping the version. Returns the number of rows changed (0 or 1).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :to, p.updatedAt = :updatedAt, p.version = p.version + 1 "
+            + "WHERE p.paymentId = :paymentId AND p.status = :from")
+    int transitionStatus(@Param("paymentId") String paymentId, @Param("from") PaymentStatus from,
+                         @Param("to") PaymentStatus to, @Param("updatedAt") LocalDateTime updatedAt);
 }
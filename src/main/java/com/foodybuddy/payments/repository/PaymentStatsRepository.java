@@ -0,0 +1,124 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.dto.PaymentStatsEntry;
+import com.foodybuddy.payments.dto.StatsGranularity;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Queries on the payment_stats rollup table
+ *
+ * Rollups add deltas under a shared advisory lock and the cold-start rebuild holds the
+ * same lock exclusively, so a rebuild never interleaves with deltas it already counts.
+ */
+@Repository
+public class PaymentStatsRepository {
+
+    // Arbitrary application-wide key for pg_advisory_xact_lock(_shared)
+    private static final long ROLLUP_LOCK_KEY = 0x7061797374617473L;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public PaymentStatsRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Take the rollup lock in shared mode until the current transaction ends
+     */
+    public void lockForRollup() {
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock_shared(:key)",
+                new MapSqlParameterSource("key", ROLLUP_LOCK_KEY), Integer.class);
+    }
+
+    /**
+     * Take the rollup lock exclusively until the current transaction ends
+     */
+    public void lockForRebuild() {
+        jdbcTemplate.queryForObject("SELECT 1 FROM pg_advisory_xact_lock(:key)",
+                new MapSqlParameterSource("key", ROLLUP_LOCK_KEY), Integer.class);
+    }
+
+    public boolean isEmpty() {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM payment_stats)",
+                new MapSqlParameterSource(), Boolean.class);
+        return !Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Add count and amount deltas to their buckets, creating missing rows. Callers pass
+     * the entries sorted by key so concurrent rollups lock rows in the same order.
+     */
+    public void addDeltas(StatsGranularity granularity, List<PaymentStatsEntry> deltas) {
+        MapSqlParameterSource[] batch = deltas.stream()
+                .map(delta -> new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("bucketStart", delta.getBucketStart())
+                        .addValue("status", delta.getStatus().name())
+                        .addValue("method", delta.getMethod().name())
+                        .addValue("currency", delta.getAmount().getCurrency())
+                        .addValue("count", delta.getCount())
+                        .addValue("amountMinor", delta.getAmount().getMinorUnits()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate("INSERT INTO payment_stats "
+                + "(granularity, bucket_start, status, method, currency, payment_count, amount_minor) "
+                + "VALUES (:granularity, :bucketStart, :status, :method, :currency, :count, :amountMinor) "
+                + "ON CONFLICT (granularity, bucket_start, status, method, currency) DO UPDATE SET "
+                + "payment_count = payment_stats.payment_count + EXCLUDED.payment_count, "
+                + "amount_minor = payment_stats.amount_minor + EXCLUDED.amount_minor", batch);
+    }
+
+    /**
+     * Fill every granularity from payments and payments_archive with one aggregate query
+     * each, returning the number of rows written
+     */
+    public int rebuildFromPayments() {
+        int rows = 0;
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            rows += jdbcTemplate.update("INSERT INTO payment_stats "
+                    + "(granularity, bucket_start, status, method, currency, payment_count, amount_minor) "
+                    + "SELECT :granularity, date_trunc(:field, created_at), status, method, currency, "
+                    + "COUNT(*), SUM(amount_minor) FROM (SELECT created_at, status, method, currency, amount_minor "
+                    + "FROM payments UNION ALL SELECT created_at, status, method, currency, amount_minor "
+                    + "FROM payments_archive) payments "
+                    + "WHERE created_at IS NOT NULL AND status IS NOT NULL AND method IS NOT NULL "
+                    + "GROUP BY 2, 3, 4, 5",
+                    new MapSqlParameterSource()
+                            .addValue("granularity", granularity.name())
+                            .addValue("field", granularity.name().toLowerCase()));
+        }
+        return rows;
+    }
+
+    /**
+     * Buckets of the given granularity starting in [from, to), oldest first
+     */
+    public List<PaymentStatsEntry> findBuckets(StatsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT bucket_start, status, method, currency, payment_count, amount_minor "
+                + "FROM payment_stats WHERE granularity = :granularity "
+                + "AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start",
+                new MapSqlParameterSource()
+                        .addValue("granularity", granularity.name())
+                        .addValue("from", from)
+                        .addValue("to", to),
+                PaymentStatsRepository::mapRow);
+    }
+
+    private static PaymentStatsEntry mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new PaymentStatsEntry(
+                rs.getObject("bucket_start", LocalDateTime.class),
+                PaymentStatus.valueOf(rs.getString("status")),
+                PaymentMethod.valueOf(rs.getString("method")),
+                rs.getLong("payment_count"),
+                Money.ofMinor(rs.getLong("amount_minor"), rs.getString("currency")));
+    }
+}
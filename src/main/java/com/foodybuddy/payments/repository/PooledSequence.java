@@ -0,0 +1,72 @@
+package com.foodybuddy.payments.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Ids from a Postgres sequence shared with Hibernate's pooled optimizer, for R2DBC writers
+ *
+ * Like Hibernate's pooled generator, each nextval is the top of a block of allocationSize
+ * ids, so JPA and R2DBC writers of the same table never hand out the same id. The first
+ * nextval of a fresh sequence is below allocationSize; as Hibernate does, it becomes the
+ * bottom of the block and a second nextval its top, so no id is zero or negative.
+ * Concurrent callers may each fetch a block when the current one runs out; the spare ids
+ * are simply skipped.
+ */
+public class PooledSequence {
+
+    private final DatabaseClient databaseClient;
+    private final String nextValueSql;
+    private final int allocationSize;
+    private final AtomicReference<Block> block = new AtomicReference<>();
+
+    public PooledSequence(DatabaseClient databaseClient, String sequenceName, int allocationSize) {
+        this.databaseClient = databaseClient;
+        this.nextValueSql = "SELECT nextval('" + sequenceName + "')";
+        this.allocationSize = allocationSize;
+    }
+
+    public Mono<Long> next() {
+        return Mono.defer(() -> {
+            Block current = block.get();
+            Long id = current == null ? null : current.take();
+            if (id != null) {
+                return Mono.just(id);
+            }
+            return nextValue()
+                    .flatMap(value -> value < allocationSize
+                            ? nextValue().map(hi -> new Block(value, hi))
+                            : Mono.just(new Block(value - allocationSize + 1, value)))
+                    .map(fetched -> {
+                        Long first = fetched.take();
+                        block.set(fetched);
+                        return first;
+                    });
+        });
+    }
+
+    private Mono<Long> nextValue() {
+        return databaseClient.sql(nextValueSql)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long hi;
+
+        Block(long lo, long hi) {
+            this.next = new AtomicLong(lo);
+            this.hi = hi;
+        }
+
+        // Next id of the block, or null once it is used up
+        Long take() {
+            long id = next.getAndIncrement();
+            return id <= hi ? id : null;
+        }
+    }
+}
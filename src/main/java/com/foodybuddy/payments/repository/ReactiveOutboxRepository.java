@@ -0,0 +1,41 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.entity.OutboxEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes outbox events over R2DBC, inside the reactive transaction that writes the payment
+ * The relay and the SSE feed keep reading payment_outbox through JDBC.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveOutboxRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payment_outbox (id, payment_id, order_id, event_type, payload, created_at) "
+            + "VALUES (:id, :paymentId, :orderId, :eventType, :payload, :createdAt)";
+
+    private final DatabaseClient databaseClient;
+    // Same sequence and block size as OutboxEvent's JPA generator
+    private final PooledSequence outboxIds;
+
+    public ReactiveOutboxRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        this.outboxIds = new PooledSequence(databaseClient, "payment_outbox_seq", 50);
+    }
+
+    public Mono<Void> save(OutboxEvent event) {
+        return outboxIds.next()
+                .flatMap(id -> databaseClient.sql(INSERT_SQL)
+                        .bind("id", id)
+                        .bind("paymentId", event.getPaymentId())
+                        .bind("orderId", event.getOrderId())
+                        .bind("eventType", event.getEventType())
+                        .bind("payload", event.getPayload())
+                        .bind("createdAt", event.getCreatedAt())
+                        .then());
+    }
+}
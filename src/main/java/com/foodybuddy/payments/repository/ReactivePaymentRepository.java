@@ -0,0 +1,33 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.entity.PaymentRow;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Non-blocking counterpart of PaymentRepository over R2DBC, for the reactive profile
+ */
+@Repository
+@Profile("reactive")
+public interface ReactivePaymentRepository extends ReactiveCrudRepository<PaymentRow, Long> {
+    Mono<PaymentRow> findByPaymentId(String paymentId);
+    Flux<PaymentRow> findByOrderId(String orderId);
+    
+    /**
+     * Compare-and-set on status, as PaymentRepository#transitionStatus
+     */
+    @Modifying
+    @Query("UPDATE payments SET status = :to, updated_at = :updatedAt, version = version + 1 "
+            + "WHERE payment_id = :paymentId AND status = :from")
+    Mono<Integer> transitionStatus(@Param("paymentId") String paymentId, @Param("from") PaymentStatus from,
+                                   @Param("to") PaymentStatus to, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -0,0 +1,218 @@
+package com.foodybuddy.payments.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.IdempotencyRecord;
+import com.foodybuddy.payments.entity.IdempotencyStatus;
+import com.foodybuddy.payments.exception.IdempotencyConflictException;
+import com.foodybuddy.payments.exception.InvalidPaymentRequestException;
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Idempotency Service
+ *
+ * Deduplicates POST /api/payments/process calls that carry an Idempotency-Key header.
+ *
+ * - A bounded, TTL-evicting in-memory cache holds the response future per key, so
+ *   repeats on this instance are answered without touching the database, and
+ *   concurrent duplicates wait on the in-flight result instead of racing
+ * - The payment_idempotency_keys table is the source of truth across instances:
+ *   a key is claimed by inserting its row before the gateway is called, and the
+ *   unique index makes every other claimant replay the stored payment instead
+ * - A claim is never deleted, since the gateway may already have charged its paymentId.
+ *   A claim whose processing failed, or whose instance stopped before finishing it
+ *   (CLAIMED for longer than idempotency.claim-lease), is taken over by the next request
+ *   with the key and processed again under the same paymentId, which the gateway treats
+ *   as its idempotency key
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final PaymentConfig paymentConfig;
+    private final IdGenerator idGenerator;
+    private final Cache<String, CompletableFuture<PaymentResponse>> responses;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper, PaymentConfig paymentConfig,
+                              IdGenerator idGenerator) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.paymentConfig = paymentConfig;
+        this.idGenerator = idGenerator;
+        PaymentConfig.Idempotency idempotency = paymentConfig.getIdempotency();
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotency.getCacheSize())
+                .expireAfterWrite(Duration.ofMillis(idempotency.getCacheTtl()))
+                .build();
+        logger.info("IdempotencyService initialized - Cache size: {}, Cache TTL: {}ms",
+            idempotency.getCacheSize(), idempotency.getCacheTtl());
+    }
+
+    /**
+     * Run the payment operation at most once per idempotency key.
+     *
+     * @param processor creates the payment under the given paymentId
+     * @param replay loads the payment previously created for a key, if it exists yet
+     */
+    public PaymentResponse execute(String idempotencyKey, ProcessPaymentRequest request,
+                                   Function<String, PaymentResponse> processor,
+                                   Function<String, Optional<PaymentResponse>> replay) {
+        CompletableFuture<PaymentResponse> pending = new CompletableFuture<>();
+        CompletableFuture<PaymentResponse> existing = responses.asMap().putIfAbsent(idempotencyKey, pending);
+        if (existing != null) {
+            logger.debug("Idempotency key seen before, waiting for its result - Key: {}", idempotencyKey);
+            return await(idempotencyKey, existing);
+        }
+
+        try {
+            PaymentResponse response = claimAndProcess(idempotencyKey, fingerprint(request), processor, replay);
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            // Let the next retry try again instead of replaying the failure
+            responses.asMap().remove(idempotencyKey, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private PaymentResponse claimAndProcess(String idempotencyKey, String fingerprint,
+                                            Function<String, PaymentResponse> processor,
+                                            Function<String, Optional<PaymentResponse>> replay) {
+        Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey);
+        if (stored.isPresent()) {
+            return replayStored(stored.get(), fingerprint, processor, replay);
+        }
+
+        IdempotencyRecord claim = new IdempotencyRecord(idempotencyKey, idGenerator.nextPaymentId(), fingerprint);
+        try {
+            claim = idempotencyRecordRepository.saveAndFlush(claim);
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Idempotency key claimed concurrently by another instance - Key: {}", idempotencyKey);
+            IdempotencyRecord winner = idempotencyRecordRepository.findByIdempotencyKey(idempotencyKey)
+                    .orElseThrow(() -> e);
+            return replayStored(winner, fingerprint, processor, replay);
+        }
+
+        logger.debug("Idempotency key claimed - Key: {}, PaymentId: {}", idempotencyKey, claim.getPaymentId());
+        return processClaimed(claim, processor);
+    }
+
+    private PaymentResponse processClaimed(IdempotencyRecord claim, Function<String, PaymentResponse> processor) {
+        PaymentResponse response;
+        try {
+            response = processor.apply(claim.getPaymentId());
+        } catch (RuntimeException e) {
+            // Keep the claim and its paymentId: the gateway may already have charged it
+            markClaim(claim, IdempotencyStatus.FAILED);
+            throw e;
+        }
+        markClaim(claim, IdempotencyStatus.COMPLETED);
+        return response;
+    }
+
+    // A claim left CLAIMED here is taken over once its lease runs out
+    private void markClaim(IdempotencyRecord claim, IdempotencyStatus status) {
+        try {
+            idempotencyRecordRepository.updateStatus(claim.getId(), status);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to mark idempotency claim - Key: {}, Status: {}",
+                claim.getIdempotencyKey(), status, e);
+        }
+    }
+
+    /**
+     * Answer a key claimed before: replay its payment if it was stored, take the claim
+     * over if it failed or its lease ran out, or report it as still in progress
+     */
+    private PaymentResponse replayStored(IdempotencyRecord record, String fingerprint,
+                                         Function<String, PaymentResponse> processor,
+                                         Function<String, Optional<PaymentResponse>> replay) {
+        if (!record.getRequestFingerprint().equals(fingerprint)) {
+            throw new InvalidPaymentRequestException(
+                "Idempotency-Key was already used with a different request: " + record.getIdempotencyKey());
+        }
+
+        Optional<PaymentResponse> stored = replay.apply(record.getPaymentId());
+        if (stored.isPresent()) {
+            logger.info("Replaying stored payment for idempotency key - Key: {}, PaymentId: {}",
+                record.getIdempotencyKey(), record.getPaymentId());
+            return stored.get();
+        }
+        if (!canTakeOver(record)) {
+            throw new IdempotencyConflictException("Request with this Idempotency-Key is still being processed");
+        }
+        LocalDateTime claimedAt = LocalDateTime.now();
+        if (idempotencyRecordRepository.reclaim(record.getId(), record.getStatus(), record.getClaimedAt(),
+                claimedAt) == 0) {
+            throw new IdempotencyConflictException("Request with this Idempotency-Key is still being processed");
+        }
+        logger.info("Taking over idempotency claim - Key: {}, PaymentId: {}, Previous status: {}",
+            record.getIdempotencyKey(), record.getPaymentId(), record.getStatus());
+        record.setStatus(IdempotencyStatus.CLAIMED);
+        record.setClaimedAt(claimedAt);
+        return processClaimed(record, processor);
+    }
+
+    // A COMPLETED claim whose payment cannot be found is never processed again
+    private boolean canTakeOver(IdempotencyRecord record) {
+        if (record.getStatus() == IdempotencyStatus.FAILED) {
+            return true;
+        }
+        return record.getStatus() == IdempotencyStatus.CLAIMED && record.getClaimedAt().isBefore(
+            LocalDateTime.now().minus(Duration.ofMillis(paymentConfig.getIdempotency().getClaimLease())));
+    }
+
+    private PaymentResponse await(String idempotencyKey, CompletableFuture<PaymentResponse> inFlight) {
+        try {
+            return inFlight.get(paymentConfig.getIdempotency().getMaxWait(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Request with this Idempotency-Key is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Idempotent request failed: " + idempotencyKey, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for idempotent request");
+        }
+    }
+
+    /**
+     * SHA-256 over the request body, so a key cannot be replayed for a different payment
+     */
+    private String fingerprint(ProcessPaymentRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to fingerprint payment request", e);
+        }
+    }
+}
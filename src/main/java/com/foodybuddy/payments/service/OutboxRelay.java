@@ -0,0 +1,97 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.OutboxEvent;
+import com.foodybuddy.payments.outbox.OutboxEventSink;
+import com.foodybuddy.payments.repository.OutboxQueryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox Relay
+ *
+ * Publishes outbox events to every OutboxEventSink in batches. Each batch runs in one
+ * transaction holding the relay advisory lock, so only one instance publishes at a time
+ * and published_seq follows commit order; a sink failure rolls the batch back and it is
+ * retried on the next run. Published events are deleted once older than the retention.
+ * Disable with payment.outbox.relay-enabled=false (events then accumulate unpublished).
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.outbox", name = "relay-enabled", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+    private final OutboxQueryRepository outboxQueryRepository;
+    private final List<OutboxEventSink> sinks;
+    private final PaymentConfig paymentConfig;
+    private final PaymentMetrics paymentMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxQueryRepository outboxQueryRepository, List<OutboxEventSink> sinks,
+                       PaymentConfig paymentConfig, PaymentMetrics paymentMetrics,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxQueryRepository = outboxQueryRepository;
+        this.sinks = sinks;
+        this.paymentConfig = paymentConfig;
+        this.paymentMetrics = paymentMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        logger.info("OutboxRelay initialized - Sinks: {}, Batch size: {}, Interval: {}ms",
+            sinks.size(), paymentConfig.getOutbox().getBatchSize(), paymentConfig.getOutbox().getRelayInterval());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay-interval:200}")
+    public void relay() {
+        int batchSize = paymentConfig.getOutbox().getBatchSize();
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch(batchSize));
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Outbox relay failed, batch will be retried", e);
+        }
+    }
+
+    private int publishBatch(int batchSize) {
+        if (!outboxQueryRepository.tryLockRelay()) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxQueryRepository.findUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        for (OutboxEventSink sink : sinks) {
+            sink.publish(events);
+        }
+        outboxQueryRepository.markPublished(events, LocalDateTime.now());
+        paymentMetrics.outboxPublished(events.size());
+        logger.debug("Published outbox events - Count: {}, Last id: {}", 
+            events.size(), events.get(events.size() - 1).getId());
+        return events.size();
+    }
+
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void deleteExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(
+            TimeUnit.MILLISECONDS.toNanos(paymentConfig.getOutbox().getRetention()));
+        int chunk = paymentConfig.getOutbox().getBatchSize() * 10;
+        int deleted;
+        int total = 0;
+        do {
+            deleted = outboxQueryRepository.deletePublishedBefore(cutoff, chunk);
+            total += deleted;
+        } while (deleted == chunk);
+        if (total > 0) {
+            logger.info("Deleted published outbox events - Count: {}, Older than: {}", total, cutoff);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.foodybuddy.payments.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodybuddy.payments.dto.PaymentEvent;
+import com.foodybuddy.payments.entity.OutboxEvent;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Outbox Service
+ *
+ * Records payment status changes in the payment_outbox table. Must be called inside the
+ * transaction that writes the payment, so the event exists if and only if the change
+ * committed; OutboxRelay publishes it afterwards.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void recordStatusChange(Payment payment) {
+        outboxEventRepository.save(toOutboxEvent(payment));
+    }
+
+    public void recordStatusChanges(List<Payment> payments) {
+        outboxEventRepository.saveAll(payments.stream().map(this::toOutboxEvent).toList());
+    }
+
+    /**
+     * Build the event without saving it, for writers outside JPA (ReactiveOutboxRepository)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OutboxEvent statusChangedEvent(Payment payment) {
+        return toOutboxEvent(payment);
+    }
+
+    private OutboxEvent toOutboxEvent(Payment payment) {
+        try {
+            String payload = objectMapper.writeValueAsString(PaymentEvent.statusChanged(payment));
+            return new OutboxEvent(payment.getPaymentId(), payment.getOrderId(), PaymentEvent.STATUS_CHANGED, payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize payment event: " + payment.getPaymentId(), e);
+        }
+    }
+}
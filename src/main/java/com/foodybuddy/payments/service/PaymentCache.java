@@ -0,0 +1,238 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Payment Cache
+ *
+ * Local read-through cache in front of the paymentId and orderId lookups used by the
+ * order-tracking screens. Entries are bounded in size and expire per entry: payments in
+ * a terminal status (see PaymentStatus#isTerminal) can never change again and are kept
+ * for the terminal TTL, everything else only for the short active TTL. An order's list
+ * only gets the terminal TTL once the order is paid (it has a COMPLETED or REFUNDED
+ * payment, so no new payment joins it) and all of its payments are terminal; an order
+ * whose payments all failed may still be paid by a new one.
+ *
+ * Writes on this instance evict the affected keys after commit. Other instances only
+ * see the change once their entry expires, which the active TTL keeps short.
+ * Hit, miss and eviction metrics are published as cache.* meters under actuator.
+ *
+ * Misses go through a SingleFlight per lookup, so a burst of requests for the same hot
+ * paymentId or orderId runs one query (even with the cache disabled). Evictions also
+ * detach the query in flight, so reads that follow a write never join an older query.
+ * Every eviction bumps a generation counter (striped by key), and a value is only cached
+ * if its key's generation is still the one read before the query started, so a query
+ * that raced a write cannot put the old row back after the write evicted it.
+ */
+@Component
+public class PaymentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentCache.class);
+    private static final int GENERATION_STRIPES = 1024;
+    private final boolean enabled;
+    private final Cache<String, PaymentResponse> paymentsById;
+    private final Cache<String, List<PaymentResponse>> paymentsByOrderId;
+    private final SingleFlight<String, PaymentResponse> paymentLoads;
+    private final SingleFlight<String, List<PaymentResponse>> orderLoads;
+    private final AtomicLongArray paymentGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLongArray orderGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public PaymentCache(PaymentConfig paymentConfig, MeterRegistry meterRegistry, PaymentMetrics paymentMetrics) {
+        PaymentConfig.Cache cache = paymentConfig.getCache();
+        long activeTtlNanos = TimeUnit.MILLISECONDS.toNanos(cache.getActiveTtl());
+        long terminalTtlNanos = TimeUnit.MILLISECONDS.toNanos(cache.getTerminalTtl());
+
+        this.enabled = cache.isEnabled();
+        this.paymentsById = Caffeine.newBuilder()
+                .maximumSize(cache.getMaxSize())
+                .expireAfter(new StatusExpiry<String, PaymentResponse>(activeTtlNanos, terminalTtlNanos) {
+                    @Override
+                    boolean isTerminal(PaymentResponse payment) {
+                        return payment.getStatus() != null && payment.getStatus().isTerminal();
+                    }
+                })
+                .recordStats()
+                .build();
+        this.paymentsByOrderId = Caffeine.newBuilder()
+                .maximumSize(cache.getMaxSize())
+                .expireAfter(new StatusExpiry<String, List<PaymentResponse>>(activeTtlNanos, terminalTtlNanos) {
+                    @Override
+                    boolean isTerminal(List<PaymentResponse> payments) {
+                        return payments.stream().anyMatch(PaymentCache::isPaid) && payments.stream()
+                                .allMatch(payment -> payment.getStatus() != null && payment.getStatus().isTerminal());
+                    }
+                })
+                .recordStats()
+                .build();
+
+        this.paymentLoads = new SingleFlight<>(cache.getCoalesceWait(),
+            outcome -> paymentMetrics.lookup("payment", outcome));
+        this.orderLoads = new SingleFlight<>(cache.getCoalesceWait(),
+            outcome -> paymentMetrics.lookup("order", outcome));
+
+        CaffeineCacheMetrics.monitor(meterRegistry, paymentsById, "payments.byPaymentId");
+        CaffeineCacheMetrics.monitor(meterRegistry, paymentsByOrderId, "payments.byOrderId");
+        logger.info("PaymentCache initialized - Enabled: {}, Max size: {}, Active TTL: {}ms, Terminal TTL: {}ms, "
+            + "Coalesce wait: {}ms", enabled, cache.getMaxSize(), cache.getActiveTtl(), cache.getTerminalTtl(),
+            cache.getCoalesceWait());
+    }
+
+    public PaymentResponse getPayment(String paymentId) {
+        return enabled ? paymentsById.getIfPresent(paymentId) : null;
+    }
+
+    /**
+     * Generation of the paymentId, to read before querying it and pass to putPayment
+     */
+    public long paymentGeneration(String paymentId) {
+        return paymentGenerations.get(stripe(paymentId));
+    }
+
+    /**
+     * Cache the payment unless it was evicted since its generation was read
+     */
+    public void putPayment(PaymentResponse payment, long generation) {
+        if (enabled) {
+            String paymentId = payment.getPaymentId();
+            paymentsById.asMap().compute(paymentId, (key, cached) ->
+                paymentGeneration(paymentId) == generation ? payment : cached);
+        }
+    }
+
+    /**
+     * Run the lookup of a missed paymentId, sharing one query among concurrent callers.
+     * The loader returns null for an unknown payment.
+     */
+    public PaymentResponse loadPayment(String paymentId, Supplier<PaymentResponse> loader) {
+        return paymentLoads.execute(paymentId, () -> {
+            long generation = paymentGeneration(paymentId);
+            PaymentResponse payment = loader.get();
+            if (payment != null) {
+                putPayment(payment, generation);
+            }
+            return payment;
+        });
+    }
+
+    public List<PaymentResponse> getPaymentsByOrderId(String orderId) {
+        return enabled ? paymentsByOrderId.getIfPresent(orderId) : null;
+    }
+
+    /**
+     * Generation of the orderId, to read before querying it and pass to putPaymentsByOrderId
+     */
+    public long orderGeneration(String orderId) {
+        return orderGenerations.get(stripe(orderId));
+    }
+
+    /**
+     * Cache the order's payments unless the order was evicted since its generation was read
+     */
+    public void putPaymentsByOrderId(String orderId, List<PaymentResponse> payments, long generation) {
+        if (enabled) {
+            List<PaymentResponse> copy = List.copyOf(payments);
+            paymentsByOrderId.asMap().compute(orderId, (key, cached) ->
+                orderGeneration(orderId) == generation ? copy : cached);
+        }
+    }
+
+    /**
+     * Run the lookup of a missed orderId, sharing one query among concurrent callers
+     */
+    public List<PaymentResponse> loadPaymentsByOrderId(String orderId, Supplier<List<PaymentResponse>> loader) {
+        return orderLoads.execute(orderId, () -> {
+            long generation = orderGeneration(orderId);
+            List<PaymentResponse> payments = List.copyOf(loader.get());
+            putPaymentsByOrderId(orderId, payments, generation);
+            return payments;
+        });
+    }
+
+    /**
+     * Evict the entries affected by a write to the given payment. Inside a transaction the
+     * eviction is repeated after commit, so a read racing the commit cannot re-cache the
+     * old row for longer than that window.
+     */
+    public void evict(String paymentId, String orderId) {
+        evictNow(paymentId, orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(paymentId, orderId);
+                }
+            });
+        }
+    }
+
+    // The generation is bumped under the entry's lock, so a put is either before the
+    // eviction (and removed by it) or sees the new generation and is dropped
+    private void evictNow(String paymentId, String orderId) {
+        if (paymentId != null) {
+            paymentLoads.forget(paymentId);
+            paymentsById.asMap().compute(paymentId, (key, cached) -> {
+                paymentGenerations.incrementAndGet(stripe(key));
+                return null;
+            });
+        }
+        if (orderId != null) {
+            orderLoads.forget(orderId);
+            paymentsByOrderId.asMap().compute(orderId, (key, cached) -> {
+                orderGenerations.incrementAndGet(stripe(key));
+                return null;
+            });
+        }
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static boolean isPaid(PaymentResponse payment) {
+        return payment.getStatus() == PaymentStatus.COMPLETED || payment.getStatus() == PaymentStatus.REFUNDED;
+    }
+
+    private abstract static class StatusExpiry<K, V> implements Expiry<K, V> {
+        private final long activeTtlNanos;
+        private final long terminalTtlNanos;
+
+        StatusExpiry(long activeTtlNanos, long terminalTtlNanos) {
+            this.activeTtlNanos = activeTtlNanos;
+            this.terminalTtlNanos = terminalTtlNanos;
+        }
+
+        abstract boolean isTerminal(V value);
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            return isTerminal(value) ? terminalTtlNanos : activeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return isTerminal(value) ? terminalTtlNanos : activeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
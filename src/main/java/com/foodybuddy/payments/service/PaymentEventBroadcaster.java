@@ -0,0 +1,120 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.OutboxEvent;
+import com.foodybuddy.payments.repository.OutboxQueryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Payment Event Broadcaster
+ *
+ * Pushes published payment events to Server-Sent Events subscribers of this instance.
+ * Every instance tails the outbox by published_seq on its own, so subscribers see all
+ * events whichever instance relayed them. The SSE event id is the published_seq.
+ * The feed starts at the latest event when the first subscriber connects; a client
+ * that reconnects should re-read the payments it cares about once.
+ */
+@Component
+public class PaymentEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentEventBroadcaster.class);
+    private static final String EVENT_NAME = "payment.status";
+
+    private final OutboxQueryRepository outboxQueryRepository;
+    private final PaymentConfig paymentConfig;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Last published_seq delivered, or -1 while nobody is subscribed
+    private long lastSeq = -1;
+
+    public PaymentEventBroadcaster(OutboxQueryRepository outboxQueryRepository, PaymentConfig paymentConfig) {
+        this.outboxQueryRepository = outboxQueryRepository;
+        this.paymentConfig = paymentConfig;
+    }
+
+    /**
+     * Register a subscriber for all payment events, or only those of one order
+     */
+    public synchronized SseEmitter subscribe(String orderId) {
+        PaymentConfig.Outbox outbox = paymentConfig.getOutbox();
+        if (subscribers.size() >= outbox.getMaxSubscribers()) {
+            throw new RejectedExecutionException("Too many payment event subscribers");
+        }
+        if (lastSeq < 0) {
+            lastSeq = outboxQueryRepository.lastPublishedSeq();
+        }
+
+        SseEmitter emitter = new SseEmitter(outbox.getSseTimeout());
+        Subscriber subscriber = new Subscriber(emitter, orderId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        logger.debug("Payment event subscriber added - OrderId: {}, Subscribers: {}", orderId, subscribers.size());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay-interval:200}")
+    public synchronized void dispatch() {
+        if (subscribers.isEmpty()) {
+            lastSeq = -1;
+            return;
+        }
+        int batchSize = paymentConfig.getOutbox().getBatchSize();
+        List<OutboxEvent> events;
+        do {
+            events = outboxQueryRepository.findPublishedAfter(lastSeq, batchSize);
+            for (OutboxEvent event : events) {
+                for (Subscriber subscriber : subscribers) {
+                    if (subscriber.orderId == null || subscriber.orderId.equals(event.getOrderId())) {
+                        send(subscriber, SseEmitter.event()
+                                .id(String.valueOf(event.getPublishedSeq()))
+                                .name(EVENT_NAME)
+                                .data(event.getPayload(), MediaType.APPLICATION_JSON));
+                    }
+                }
+                lastSeq = event.getPublishedSeq();
+            }
+        } while (events.size() == batchSize);
+    }
+
+    /**
+     * Comment line that keeps idle connections open and detects clients that went away
+     */
+    @Scheduled(fixedDelayString = "${payment.outbox.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("keepalive"));
+        }
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Dropping payment event subscriber - OrderId: {}, Reason: {}", 
+                subscriber.orderId, e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String orderId;
+
+        Subscriber(SseEmitter emitter, String orderId) {
+            this.emitter = emitter;
+            this.orderId = orderId;
+        }
+    }
+}
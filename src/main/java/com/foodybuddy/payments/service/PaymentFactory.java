@@ -0,0 +1,106 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.exception.InvalidPaymentRequestException;
+import com.foodybuddy.payments.id.IdGenerator;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Payment Factory
+ *
+ * Validates process requests and builds their PROCESSING payments, for PaymentService
+ * and ReactivePaymentService alike. Touches no database, so it is safe on either stack.
+ */
+@Component
+public class PaymentFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentFactory.class);
+    private final PaymentConfig paymentConfig;
+    private final PaymentMetrics paymentMetrics;
+    private final IdGenerator idGenerator;
+
+    public PaymentFactory(PaymentConfig paymentConfig, PaymentMetrics paymentMetrics, IdGenerator idGenerator) {
+        this.paymentConfig = paymentConfig;
+        this.paymentMetrics = paymentMetrics;
+        this.idGenerator = idGenerator;
+    }
+
+    /**
+     * Validate the request and build its PROCESSING payment, or throw
+     * InvalidPaymentRequestException
+     */
+    public Payment validatedPayment(ProcessPaymentRequest request, String paymentId) {
+        String validationError = validationError(request);
+        if (validationError != null) {
+            logger.warn("Rejected invalid payment request - Reason: {}", validationError);
+            throw new InvalidPaymentRequestException(validationError);
+        }
+        return newPayment(request, paymentId);
+    }
+
+    /**
+     * Check the fields the payments table requires, before any gateway or database work.
+     * Returns the reason the request is invalid, or null, and records the validation stage.
+     */
+    public String validationError(ProcessPaymentRequest request) {
+        Timer.Sample validation = paymentMetrics.startTimer();
+        String validationError = check(request);
+        paymentMetrics.recordStage(validation, PaymentMetrics.STAGE_VALIDATION,
+            request == null ? null : request.getMethod(), validationError == null ? "VALID" : "INVALID");
+        return validationError;
+    }
+
+    /**
+     * Build the PROCESSING payment for a request that passed validationError
+     */
+    public Payment newPayment(ProcessPaymentRequest request, String paymentId) {
+        String transactionId = idGenerator.nextTransactionId();
+
+        // Create payment
+        Payment payment = new Payment(
+                paymentId,
+                request.getOrderId(),
+                amountOf(request),
+                PaymentStatus.PROCESSING,
+                request.getMethod()
+        );
+
+        payment.setTransactionId(transactionId);
+        logger.debug("Payment created with transaction ID: {}", transactionId);
+        return payment;
+    }
+
+    private String check(ProcessPaymentRequest request) {
+        if (request == null) {
+            return "Payment request is required";
+        }
+        if (request.getOrderId() == null || request.getOrderId().isBlank()) {
+            return "orderId is required";
+        }
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            return "amount must be positive";
+        }
+        try {
+            amountOf(request);
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        if (request.getMethod() == null) {
+            return "method is required";
+        }
+        return null;
+    }
+
+    private Money amountOf(ProcessPaymentRequest request) {
+        String currency = request.getCurrency() != null
+            ? request.getCurrency() : paymentConfig.getProcessing().getDefaultCurrency();
+        return Money.of(request.getAmount(), currency);
+    }
+}
@@ -0,0 +1,95 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.journal.JournalEntry;
+import com.foodybuddy.payments.journal.PaymentJournal;
+import com.foodybuddy.payments.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Payment Journal Drainer
+ *
+ * Inserts journaled payments into the database in journal order, one batch per
+ * transaction together with their outbox events, and then reports the batch drained to
+ * PaymentJournal. Payments already in the database are skipped: after a crash between a
+ * commit and the journal checkpoint the batch is replayed, and this makes the replay a
+ * no-op. Runs on one scheduler thread, so batches never overlap. A failed batch is left
+ * in the journal and retried on the next run.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.journal", name = "enabled")
+public class PaymentJournalDrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentJournalDrainer.class);
+    private final PaymentJournal paymentJournal;
+    private final PaymentRepository paymentRepository;
+    private final OutboxService outboxService;
+    private final PaymentStatsService paymentStatsService;
+    private final PaymentCache paymentCache;
+    private final PaymentConfig paymentConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentJournalDrainer(PaymentJournal paymentJournal, PaymentRepository paymentRepository,
+                                 OutboxService outboxService, PaymentStatsService paymentStatsService,
+                                 PaymentCache paymentCache, PaymentConfig paymentConfig,
+                                 PlatformTransactionManager transactionManager) {
+        this.paymentJournal = paymentJournal;
+        this.paymentRepository = paymentRepository;
+        this.outboxService = outboxService;
+        this.paymentStatsService = paymentStatsService;
+        this.paymentCache = paymentCache;
+        this.paymentConfig = paymentConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        logger.info("PaymentJournalDrainer initialized - Batch size: {}, Interval: {}ms",
+            paymentConfig.getJournal().getDrainBatchSize(), paymentConfig.getJournal().getDrainInterval());
+    }
+
+    @Scheduled(fixedDelayString = "${payment.journal.drain-interval:50}")
+    public void drain() {
+        int batchSize = paymentConfig.getJournal().getDrainBatchSize();
+        try {
+            List<JournalEntry> batch;
+            do {
+                batch = paymentJournal.nextBatch(batchSize);
+                if (!batch.isEmpty()) {
+                    drainBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Payment journal drain failed, batch will be retried", e);
+        }
+    }
+
+    private void drainBatch(List<JournalEntry> batch) {
+        List<Payment> inserted = transactionTemplate.execute(status -> {
+            Set<String> existing = paymentRepository.findByPaymentIdIn(
+                    batch.stream().map(JournalEntry::getPaymentId).toList())
+                    .stream().map(Payment::getPaymentId).collect(Collectors.toSet());
+            List<Payment> payments = batch.stream()
+                    .filter(entry -> !existing.contains(entry.getPaymentId()))
+                    .map(JournalEntry::toPayment)
+                    .toList();
+            List<Payment> persisted = paymentRepository.saveAll(payments);
+            outboxService.recordStatusChanges(persisted);
+            return persisted;
+        });
+        for (Payment payment : inserted) {
+            paymentStatsService.recordTransition(payment, null);
+            paymentCache.evict(payment.getPaymentId(), payment.getOrderId());
+        }
+        paymentJournal.drained(batch);
+        logger.debug("Drained journaled payments - Count: {}, Replayed: {}, Last sequence: {}", 
+            batch.size(), batch.size() - inserted.size(), batch.get(batch.size() - 1).getSequence());
+    }
+}
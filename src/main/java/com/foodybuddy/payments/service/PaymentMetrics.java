@@ -0,0 +1,239 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.admission.TrafficClass;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.gateway.GatewayCircuitBreaker;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Payment Metrics
+ *
+ * Micrometer meters for the payment pipeline, exported through the Prometheus actuator
+ * endpoint. Timers publish percentile histograms so p99 latency can be computed (and
+ * aggregated across instances) on the Prometheus side.
+ *
+ * - payments.process: end-to-end latency, tagged by method and final status
+ * - payments.process.stage: latency per stage (validation, gateway, persistence),
+ *   tagged by method and outcome
+ * - payments.refunds / payments.lookups.not_found: refund outcomes and misses
+ * - payments.lookups: paymentId / orderId lookups that missed the cache, by outcome:
+ *   loaded (ran the query), coalesced (shared a concurrent query) or wait_timeout
+ * - payments.inflight: payments accepted but not yet in a final status
+ * - payments.outbox.published: events handed to the outbox sinks
+ * - payments.archived: payments moved to payments_archive, tagged by status
+ * - payments.gateway.retries / payments.gateway.rejected: gateway retries, and calls
+ *   refused by the bulkhead or an open circuit, tagged by method
+ * - payments.gateway.circuit.state: circuit per method (0 closed, 1 half-open, 2 open)
+ *
+ * Connection pool usage comes from the hikaricp.connections.* meters Spring Boot binds.
+ */
+@Component
+public class PaymentMetrics {
+
+    public static final String STAGE_VALIDATION = "validation";
+    public static final String STAGE_GATEWAY = "gateway";
+    public static final String STAGE_PERSISTENCE = "persistence";
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlightPayments = new AtomicInteger();
+
+    public PaymentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("payments.inflight", inFlightPayments, AtomicInteger::get)
+                .description("Payments accepted but not yet in a final status")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordStage(Timer.Sample sample, String stage, PaymentMethod method, String outcome) {
+        sample.stop(Timer.builder("payments.process.stage")
+                .description("Latency of each payment processing stage")
+                .tag("stage", stage)
+                .tag("method", method == null ? UNKNOWN : method.name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public void recordStage(Timer.Sample sample, String stage, PaymentMethod method, PaymentStatus status) {
+        recordStage(sample, stage, method, status == null ? UNKNOWN : status.name());
+    }
+
+    public void recordPayment(Timer.Sample sample, PaymentMethod method, PaymentStatus status) {
+        sample.stop(Timer.builder("payments.process")
+                .description("End-to-end payment processing latency")
+                .tag("method", method == null ? UNKNOWN : method.name())
+                .tag("status", status == null ? UNKNOWN : status.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public void paymentsStarted(int count) {
+        inFlightPayments.addAndGet(count);
+    }
+
+    public void paymentsFinished(int count) {
+        inFlightPayments.addAndGet(-count);
+    }
+
+    public void refund(String outcome) {
+        Counter.builder("payments.refunds")
+                .description("Refund requests by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void notFound(String lookup) {
+        Counter.builder("payments.lookups.not_found")
+                .description("Lookups for payments that do not exist")
+                .tag("lookup", lookup)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void lookup(String lookup, SingleFlight.Outcome outcome) {
+        Counter.builder("payments.lookups")
+                .description("Cache-missing lookups by whether they ran their own query")
+                .tag("lookup", lookup)
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void outboxPublished(int count) {
+        Counter.builder("payments.outbox.published")
+                .description("Outbox events published to the sinks")
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    public void archived(PaymentStatus status, int count) {
+        Counter.builder("payments.archived")
+                .description("Payments moved to the archive table")
+                .tag("status", status.name())
+                .register(meterRegistry)
+                .increment(count);
+    }
+
+    /**
+     * Gauges for the current concurrency limit and in-flight requests of a traffic class
+     */
+    public void registerAdmission(TrafficClass trafficClass, DoubleSupplier limit, IntSupplier inFlight) {
+        Gauge.builder("payments.admission.limit", limit, DoubleSupplier::getAsDouble)
+                .description("Adaptive concurrency limit of the traffic class")
+                .tag("class", trafficClass.name())
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("payments.admission.inflight", inFlight, IntSupplier::getAsInt)
+                .description("Admitted requests of the traffic class in progress")
+                .tag("class", trafficClass.name())
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void admissionRejected(TrafficClass trafficClass) {
+        Counter.builder("payments.admission.rejected")
+                .description("Requests answered 429 because their traffic class was saturated")
+                .tag("class", trafficClass.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Gauges for a read replica's last measured lag (NaN when unreachable) and whether it takes reads
+     */
+    public void registerReplica(String replica, DoubleSupplier lagMillis, BooleanSupplier available) {
+        Gauge.builder("payments.replica.lag", lagMillis, DoubleSupplier::getAsDouble)
+                .description("Replay lag of the read replica in milliseconds")
+                .tag("replica", replica)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("payments.replica.available", available, current -> current.getAsBoolean() ? 1 : 0)
+                .description("Whether the read replica takes reads: 1 yes, 0 lagging or unreachable")
+                .tag("replica", replica)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void replicaRead(String target) {
+        Counter.builder("payments.replica.reads")
+                .description("Read-only transactions by the server they read from")
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Gauge for journaled payments not yet drained to the database
+     */
+    public void registerJournalPending(IntSupplier pendingPayments) {
+        Gauge.builder("payments.journal.pending", pendingPayments, IntSupplier::getAsInt)
+                .description("Journaled payments waiting to be drained to the database")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void journalForced(int records) {
+        DistributionSummary.builder("payments.journal.group.commit")
+                .description("Journal records made durable by one fsync")
+                .register(meterRegistry)
+                .record(records);
+    }
+
+    /**
+     * Gauge for gateway calls currently holding a permit
+     */
+    public void registerGatewayInFlight(IntSupplier inFlightCalls) {
+        Gauge.builder("payments.gateway.inflight", inFlightCalls, IntSupplier::getAsInt)
+                .description("Gateway calls currently in flight")
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    public void gatewayRetry(PaymentMethod method) {
+        Counter.builder("payments.gateway.retries")
+                .description("Gateway calls retried after an error or timeout")
+                .tag("method", method == null ? UNKNOWN : method.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    public void gatewayRejected(PaymentMethod method, String reason) {
+        Counter.builder("payments.gateway.rejected")
+                .description("Gateway calls refused without reaching the gateway")
+                .tag("method", method == null ? UNKNOWN : method.name())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Gauge for the circuit state of one payment method's gateway
+     */
+    public void registerCircuitState(PaymentMethod method, Supplier<GatewayCircuitBreaker.State> state) {
+        Gauge.builder("payments.gateway.circuit.state", state, current -> current.get().ordinal())
+                .description("Gateway circuit state: 0 closed, 1 half-open, 2 open")
+                .tag("method", method.name())
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,147 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.repository.PaymentArchiveRepository;
+import com.foodybuddy.payments.repository.PaymentPartitionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payment Partition Maintenance
+ *
+ * Keeps the monthly partitions of payments ready ahead of the clock: the current month
+ * and payment.partitions.months-ahead months after it are created once all beans exist,
+ * before the web server takes payments, and re-checked every hour.
+ *
+ * Each archival run moves payments older than the retention of their status
+ * (payment.archive.retention-days) to payments_archive, in batches of one transaction
+ * holding the archiver advisory lock, then drops past months' partitions it has emptied.
+ * Only final statuses and COMPLETED are archived; payments still in flight never are.
+ * Disable archival with payment.archive.enabled=false, or the whole job with
+ * payment.partitions.maintenance-enabled=false (future months then need creating by hand).
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.partitions", name = "maintenance-enabled", matchIfMissing = true)
+public class PaymentPartitionMaintenance implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentPartitionMaintenance.class);
+    private final PaymentPartitionRepository paymentPartitionRepository;
+    private final PaymentArchiveRepository paymentArchiveRepository;
+    private final PaymentConfig paymentConfig;
+    private final PaymentMetrics paymentMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    public PaymentPartitionMaintenance(PaymentPartitionRepository paymentPartitionRepository,
+                                       PaymentArchiveRepository paymentArchiveRepository,
+                                       PaymentConfig paymentConfig, PaymentMetrics paymentMetrics,
+                                       PlatformTransactionManager transactionManager) {
+        this.paymentPartitionRepository = paymentPartitionRepository;
+        this.paymentArchiveRepository = paymentArchiveRepository;
+        this.paymentConfig = paymentConfig;
+        this.paymentMetrics = paymentMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        paymentConfig.getArchive().getRetentionDays().keySet().stream()
+                .filter(status -> !isArchivable(status))
+                .forEach(status -> logger.warn("Payments in status {} are never archived, ignoring its retention", status));
+        logger.info("PaymentPartitionMaintenance initialized - Months ahead: {}, Archive enabled: {}, Retention days: {}",
+            paymentConfig.getPartitions().getMonthsAhead(), paymentConfig.getArchive().isEnabled(),
+            paymentConfig.getArchive().getRetentionDays());
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        createPartitions();
+    }
+
+    @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+    public void createPartitions() {
+        YearMonth current = YearMonth.now();
+        try {
+            for (int i = 0; i <= paymentConfig.getPartitions().getMonthsAhead(); i++) {
+                paymentPartitionRepository.createPartition(current.plusMonths(i));
+            }
+        } catch (RuntimeException e) {
+            logger.error("Creating payment partitions failed, will retry within the hour", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${payment.archive.interval:3600000}",
+               initialDelayString = "${payment.archive.interval:3600000}")
+    public void archive() {
+        PaymentConfig.Archive archive = paymentConfig.getArchive();
+        if (!archive.isEnabled()) {
+            return;
+        }
+        try {
+            for (Map.Entry<PaymentStatus, Integer> retention : archive.getRetentionDays().entrySet()) {
+                PaymentStatus status = retention.getKey();
+                if (!isArchivable(status)) {
+                    continue;
+                }
+                LocalDateTime cutoff = LocalDateTime.now().minusDays(retention.getValue());
+                if (!archiveStatus(status, cutoff, archive.getBatchSize())) {
+                    logger.debug("Another instance is archiving payments, skipping this run");
+                    return;
+                }
+            }
+            dropEmptyPartitions();
+        } catch (RuntimeException e) {
+            logger.error("Payment archival failed, will retry on the next run", e);
+        }
+    }
+
+    // Returns false when another instance holds the archiver lock
+    private boolean archiveStatus(PaymentStatus status, LocalDateTime cutoff, int batchSize) {
+        int moved;
+        int total = 0;
+        do {
+            Integer batch = transactionTemplate.execute(tx -> paymentArchiveRepository.tryLockArchiver()
+                    ? paymentArchiveRepository.archive(status, cutoff, batchSize) : null);
+            if (batch == null) {
+                return false;
+            }
+            moved = batch;
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            paymentMetrics.archived(status, total);
+            logger.info("Archived payments - Status: {}, Count: {}, Created before: {}", status, total, cutoff);
+        }
+        return true;
+    }
+
+    /**
+     * Drop partitions of past months that archival has emptied. The previous month is
+     * kept, since an instance whose clock lags can still write a payment into it.
+     */
+    private void dropEmptyPartitions() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(1);
+        for (YearMonth month : paymentPartitionRepository.findPartitions().keySet()) {
+            if (!month.isBefore(oldestKept)) {
+                break;
+            }
+            Boolean dropped = transactionTemplate.execute(tx -> paymentArchiveRepository.tryLockArchiver()
+                    && paymentPartitionRepository.dropIfEmpty(month));
+            if (Boolean.TRUE.equals(dropped)) {
+                logger.info("Dropped empty payment partition - Month: {}", month);
+            }
+        }
+    }
+
+    // Payments the service can still move on its own must stay where it updates them
+    private static boolean isArchivable(PaymentStatus status) {
+        return status.isTerminal() || status == PaymentStatus.COMPLETED;
+    }
+}
@@ -1,20 +1,60 @@
 package com.foodybuddy.payments.service;
 
+import com.foodybuddy.payments.config.LoggingContextInterceptor;
+import com.foodybuddy.payments.config.MdcTaskDecorator;
 import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.BatchPaymentItemResult;
+import com.foodybuddy.payments.dto.BatchPaymentResponse;
+import com.foodybuddy.payments.dto.PaymentCursor;
+import com.foodybuddy.payments.dto.PaymentLookupRequest;
+import com.foodybuddy.payments.dto.PaymentLookupResponse;
+import com.foodybuddy.payments.dto.PaymentPage;
 import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.dto.PaymentSummary;
 import com.foodybuddy.payments.dto.ProcessPaymentRequest;
 import com.foodybuddy.payments.entity.Payment;
 import com.foodybuddy.payments.entity.PaymentMethod;
 import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.exception.InvalidPaymentRequestException;
+import com.foodybuddy.payments.exception.PaymentConflictException;
+import com.foodybuddy.payments.exception.PaymentNotFoundException;
+import com.foodybuddy.payments.gateway.GatewayResult;
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.journal.PaymentJournal;
+import com.foodybuddy.payments.replica.ReadRouting;
+import com.foodybuddy.payments.repository.PaymentArchiveRepository;
+import com.foodybuddy.payments.repository.PaymentQueryRepository;
 import com.foodybuddy.payments.repository.PaymentRepository;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -25,7 +65,7 @@ import java.util.stream.Collectors;
  * 
  * Key responsibilities:
  * - Process payments for orders
- * - Simulate payment gateway interactions
+ * - Authorize payments through the PaymentGateway registered for each method
  * - Track payment status and transaction details
  * - Handle payment refunds
  * - Provide payment history and details
@@ -36,145 +76,650 @@ public class PaymentService {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     private final PaymentRepository paymentRepository;
+    private final PaymentQueryRepository paymentQueryRepository;
+    private final PaymentArchiveRepository paymentArchiveRepository;
     private final PaymentConfig paymentConfig;
+    private final ResilientGatewayClient resilientGatewayClient;
+    private final IdempotencyService idempotencyService;
+    private final PaymentCache paymentCache;
+    private final PaymentMetrics paymentMetrics;
+    private final IdGenerator idGenerator;
+    private final PaymentFactory paymentFactory;
+    private final OutboxService outboxService;
+    private final PaymentStatsService paymentStatsService;
+    private final PaymentJournal paymentJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final Executor paymentGatewayExecutor;
 
-    public PaymentService(PaymentRepository paymentRepository, PaymentConfig paymentConfig) {
+    public PaymentService(PaymentRepository paymentRepository, PaymentQueryRepository paymentQueryRepository,
+                          PaymentArchiveRepository paymentArchiveRepository,
+                          PaymentConfig paymentConfig,
+                          ResilientGatewayClient resilientGatewayClient,
+                          IdempotencyService idempotencyService,
+                          PaymentCache paymentCache,
+                          PaymentMetrics paymentMetrics,
+                          IdGenerator idGenerator,
+                          PaymentFactory paymentFactory,
+                          OutboxService outboxService,
+                          PaymentStatsService paymentStatsService,
+                          PaymentJournal paymentJournal,
+                          PlatformTransactionManager transactionManager,
+                          @Qualifier("paymentGatewayExecutor") Executor paymentGatewayExecutor) {
         this.paymentRepository = paymentRepository;
+        this.paymentQueryRepository = paymentQueryRepository;
+        this.paymentArchiveRepository = paymentArchiveRepository;
         this.paymentConfig = paymentConfig;
-        logger.info("PaymentService initialized with payment config - Simulation enabled: {}, Success rate: {}", 
-            paymentConfig.getSimulation().isEnabled(), paymentConfig.getProcessing().getSuccessRate());
+        this.resilientGatewayClient = resilientGatewayClient;
+        this.idempotencyService = idempotencyService;
+        this.paymentCache = paymentCache;
+        this.paymentGatewayExecutor = paymentGatewayExecutor;
+        this.paymentMetrics = paymentMetrics;
+        this.idGenerator = idGenerator;
+        this.paymentFactory = paymentFactory;
+        this.outboxService = outboxService;
+        this.paymentStatsService = paymentStatsService;
+        this.paymentJournal = paymentJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        logger.info("PaymentService initialized with payment config - Simulation enabled: {}, Success rate: {}, Async: {}", 
+            paymentConfig.getSimulation().isEnabled(), paymentConfig.getProcessing().getSuccessRate(),
+            paymentConfig.getExecution().isAsync());
     }
     
+    /**
+     * Runs outside the class-level transaction so the gateway wait never pins a pooled
+     * JDBC connection; each save below commits in its own short transaction, together
+     * with the outbox event for the status change. With payment.journal.enabled the
+     * synchronous result is journaled instead and reaches the database on the next drain.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse processPayment(ProcessPaymentRequest request) {
-        String paymentId = UUID.randomUUID().toString();
-        String transactionId = "TXN_" + System.currentTimeMillis();
+        return process(request, idGenerator.nextPaymentId(), paymentJournal.isEnabled());
+    }
+    
+    /**
+     * Process a payment at most once per idempotency key. Repeats replay the payment
+     * created by the first request without calling the gateway again. The replay reads the
+     * database, so these payments are never journaled, and it must see the first request's
+     * commit, so its reads never go to a replica.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PaymentResponse processPayment(ProcessPaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return processPayment(request);
+        }
+        return ReadRouting.onPrimary(() -> idempotencyService.execute(idempotencyKey, request,
+                paymentId -> process(request, paymentId, false),
+                paymentId -> paymentRepository.findByPaymentId(paymentId).map(PaymentResponse::from)));
+    }
+    
+    private PaymentResponse process(ProcessPaymentRequest request, String paymentId, boolean journaled) {
+        // Ids travel as MDC fields rather than being formatted into each message
+        try (MDC.MDCCloseable paymentContext = MDC.putCloseable(LoggingContextInterceptor.MDC_PAYMENT_ID, paymentId);
+             MDC.MDCCloseable orderContext = MDC.putCloseable(LoggingContextInterceptor.MDC_ORDER_ID, 
+                 request.getOrderId())) {
+            return processInContext(request, paymentId, journaled);
+        }
+    }
+    
+    private PaymentResponse processInContext(ProcessPaymentRequest request, String paymentId, boolean journaled) {
+        logger.debug("Processing payment - Amount: {}, Method: {}", request.getAmount(), request.getMethod());
+        Timer.Sample processing = paymentMetrics.startTimer();
+        Payment payment = paymentFactory.validatedPayment(request, paymentId);
         
-        logger.info("Processing payment - PaymentId: {}, OrderId: {}, Amount: {}, Method: {}", 
-            paymentId, request.getOrderId(), request.getAmount(), request.getMethod());
+        if (paymentConfig.getExecution().isAsync()) {
+            return acceptForAsyncProcessing(payment, processing);
+        }
+        if (journaled) {
+            paymentJournal.checkCapacity();
+        }
         
-        // Create payment
-        Payment payment = new Payment(
-                paymentId,
-                request.getOrderId(),
-                request.getAmount(),
-                PaymentStatus.PROCESSING,
-                request.getMethod()
-        );
+        paymentMetrics.paymentsStarted(1);
+        try {
+            GatewayResult result = awaitGatewayResult(payment, startGatewayCall(payment),
+                    paymentConfig.getProcessing().getTimeout());
+            payment.transitionTo(result.getStatus());
+            
+            // Save payment
+            Timer.Sample persistence = paymentMetrics.startTimer();
+            if (journaled) {
+                PaymentResponse journaledPayment = paymentJournal.append(payment);
+                paymentMetrics.recordStage(persistence, PaymentMetrics.STAGE_PERSISTENCE, 
+                    payment.getMethod(), payment.getStatus());
+                logger.info("Payment journaled - Status: {}, TransactionId: {}", 
+                    payment.getStatus(), payment.getTransactionId());
+                paymentMetrics.recordPayment(processing, payment.getMethod(), payment.getStatus());
+                return journaledPayment;
+            }
+            Payment savedPayment = saveWithEvent(payment, null);
+            paymentMetrics.recordStage(persistence, PaymentMetrics.STAGE_PERSISTENCE, 
+                savedPayment.getMethod(), savedPayment.getStatus());
+            paymentCache.evict(savedPayment.getPaymentId(), savedPayment.getOrderId());
+            logger.info("Payment processed - Status: {}, TransactionId: {}", 
+                savedPayment.getStatus(), savedPayment.getTransactionId());
+            
+            paymentMetrics.recordPayment(processing, savedPayment.getMethod(), savedPayment.getStatus());
+            return PaymentResponse.from(savedPayment);
+        } finally {
+            paymentMetrics.paymentsFinished(1);
+        }
+    }
+    
+    /**
+     * Process a batch of payments in one call. Gateway calls fan out in parallel, bounded
+     * by the gateway permits, and the resulting payments are stored with one batched insert.
+     * Invalid entries are rejected individually without creating a payment.
+     * Batches always wait for the gateway, regardless of the async execution mode.
+     * All entries share one gateway-permit-wait, and a batch is never larger than the
+     * gateway permits, so one batch cannot hold the request thread for a wait per entry.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchPaymentResponse processBatch(List<ProcessPaymentRequest> requests) {
+        int maxSize = Math.min(paymentConfig.getBatch().getMaxSize(), 
+            paymentConfig.getExecution().getMaxConcurrentGatewayCalls());
+        if (requests.size() > maxSize) {
+            throw new InvalidPaymentRequestException("Batch of " + requests.size() + " payments exceeds limit of " + maxSize);
+        }
+        logger.info("Processing payment batch - Size: {}", requests.size());
         
-        payment.setTransactionId(transactionId);
-        logger.debug("Payment created with transaction ID: {}", transactionId);
+        BatchPaymentItemResult[] results = new BatchPaymentItemResult[requests.size()];
+        List<Integer> indexes = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        List<CompletableFuture<GatewayResult>> gatewayCalls = new ArrayList<>();
+        // Entries left without a permit once it passes are rejected right away
+        long permitDeadline = System.nanoTime() 
+            + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getExecution().getGatewayPermitWait());
+        
+        for (int i = 0; i < requests.size(); i++) {
+            ProcessPaymentRequest request = requests.get(i);
+            String validationError = paymentFactory.validationError(request);
+            if (validationError != null) {
+                results[i] = new BatchPaymentItemResult(i, request == null ? null : request.getOrderId(),
+                        null, null, null, validationError);
+                continue;
+            }
+            
+            Payment payment = paymentFactory.newPayment(request, idGenerator.nextPaymentId());
+            try {
+                gatewayCalls.add(startGatewayCall(payment, permitDeadline));
+            } catch (RejectedExecutionException e) {
+                results[i] = new BatchPaymentItemResult(i, request.getOrderId(), null, null, null, 
+                        e.getMessage());
+                continue;
+            }
+            indexes.add(i);
+            payments.add(payment);
+        }
         
-        // Simulate payment processing
+        paymentMetrics.paymentsStarted(payments.size());
+        List<Payment> savedPayments;
         try {
-            if (paymentConfig.getSimulation().isEnabled()) {
-                logger.debug("Simulating payment processing with delay: {}ms", 
-                    paymentConfig.getSimulation().getProcessingDelay());
-                
-                // In a real application, this would call a payment gateway
-                Thread.sleep(paymentConfig.getSimulation().getProcessingDelay());
-                
-                // Simulate success/failure based on configured success rate
-                double randomValue = Math.random();
-                double successRate = paymentConfig.getProcessing().getSuccessRate();
-                
-                if (randomValue > (1 - successRate)) {
-                    payment.setStatus(PaymentStatus.COMPLETED);
-                    logger.info("Payment simulation successful - PaymentId: {}, Random: {}, SuccessRate: {}", 
-                        paymentId, randomValue, successRate);
-                } else {
-                    payment.setStatus(PaymentStatus.FAILED);
-                    logger.warn("Payment simulation failed - PaymentId: {}, Random: {}, SuccessRate: {}", 
-                        paymentId, randomValue, successRate);
-                }
+            // All calls share one deadline, so the batch waits at most one gateway timeout
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getProcessing().getTimeout());
+            for (int j = 0; j < payments.size(); j++) {
+                long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+                Payment payment = payments.get(j);
+                payment.transitionTo(awaitGatewayResult(payment, gatewayCalls.get(j), remainingMillis).getStatus());
+            }
+            
+            Timer.Sample persistence = paymentMetrics.startTimer();
+            savedPayments = saveAllWithEvents(payments);
+            paymentMetrics.recordStage(persistence, PaymentMetrics.STAGE_PERSISTENCE, null, "BATCH");
+        } finally {
+            paymentMetrics.paymentsFinished(payments.size());
+        }
+        
+        int completed = 0;
+        int failed = 0;
+        for (int j = 0; j < savedPayments.size(); j++) {
+            Payment saved = savedPayments.get(j);
+            paymentCache.evict(saved.getPaymentId(), saved.getOrderId());
+            int index = indexes.get(j);
+            results[index] = new BatchPaymentItemResult(index, saved.getOrderId(), saved.getPaymentId(),
+                    saved.getStatus(), saved.getTransactionId(), null);
+            if (saved.getStatus() == PaymentStatus.COMPLETED) {
+                completed++;
             } else {
-                // Real payment processing would go here
-                logger.debug("Real payment processing enabled");
-                payment.setStatus(PaymentStatus.COMPLETED);
+                failed++;
             }
-        } catch (InterruptedException e) {
-            logger.error("Payment processing interrupted - PaymentId: {}", paymentId, e);
-            payment.setStatus(PaymentStatus.FAILED);
         }
+        int rejected = requests.size() - savedPayments.size();
         
-        // Save payment
-        Payment savedPayment = paymentRepository.save(payment);
-        logger.info("Payment saved successfully - PaymentId: {}, Status: {}, TransactionId: {}", 
-            paymentId, savedPayment.getStatus(), transactionId);
+        logger.info("Payment batch processed - Size: {}, Completed: {}, Failed: {}, Rejected: {}", 
+            requests.size(), completed, failed, rejected);
+        return new BatchPaymentResponse(requests.size(), completed, failed, rejected, Arrays.asList(results));
+    }
+    
+    /**
+     * Saves the payment and its outbox event in one short transaction, then counts the
+     * move from previousStatus (null for a new payment) in the stats
+     */
+    private Payment saveWithEvent(Payment payment, PaymentStatus previousStatus) {
+        Payment saved = transactionTemplate.execute(status -> {
+            Payment persisted = paymentRepository.save(payment);
+            outboxService.recordStatusChange(persisted);
+            return persisted;
+        });
+        paymentStatsService.recordTransition(saved, previousStatus);
+        return saved;
+    }
+    
+    private List<Payment> saveAllWithEvents(List<Payment> payments) {
+        List<Payment> saved = transactionTemplate.execute(status -> {
+            List<Payment> persisted = paymentRepository.saveAll(payments);
+            outboxService.recordStatusChanges(persisted);
+            return persisted;
+        });
+        for (Payment payment : saved) {
+            paymentStatsService.recordTransition(payment, null);
+        }
+        return saved;
+    }
+    
+    /**
+     * Persists the payment as PROCESSING and starts the gateway call. The final status is
+     * committed on the gateway executor once the gateway answers; no thread waits for it.
+     * The returned response reflects the accepted state only.
+     */
+    private PaymentResponse acceptForAsyncProcessing(Payment payment, Timer.Sample processing) {
+        Timer.Sample persistence = paymentMetrics.startTimer();
+        Payment acceptedPayment = saveWithEvent(payment, null);
+        paymentMetrics.recordStage(persistence, PaymentMetrics.STAGE_PERSISTENCE, 
+            acceptedPayment.getMethod(), acceptedPayment.getStatus());
+        paymentCache.evict(acceptedPayment.getPaymentId(), acceptedPayment.getOrderId());
+        PaymentResponse response = PaymentResponse.from(acceptedPayment);
+        logger.info("Payment accepted for async processing - TransactionId: {}", 
+            acceptedPayment.getTransactionId());
         
-        return convertToResponse(savedPayment);
+        CompletableFuture<GatewayResult> gatewayCall;
+        try {
+            gatewayCall = startGatewayCall(acceptedPayment);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Payment gateway call rejected, failing payment - Reason: {}", e.getMessage());
+            acceptedPayment.transitionTo(PaymentStatus.FAILED);
+            saveWithEvent(acceptedPayment, PaymentStatus.PROCESSING);
+            paymentCache.evict(acceptedPayment.getPaymentId(), acceptedPayment.getOrderId());
+            paymentMetrics.recordPayment(processing, acceptedPayment.getMethod(), acceptedPayment.getStatus());
+            throw e;
+        }
+        
+        paymentMetrics.paymentsStarted(1);
+        // The gateway's thread submits the completion, so capture this request's MDC now
+        gatewayCall.whenCompleteAsync(
+                (result, error) -> completePayment(acceptedPayment, result, error, processing), 
+                MdcTaskDecorator.capturing(paymentGatewayExecutor));
+        return response;
     }
     
+    private void completePayment(Payment payment, GatewayResult result, Throwable error, Timer.Sample processing) {
+        PaymentStatus acceptedStatus = payment.getStatus();
+        if (error != null) {
+            logger.error("Gateway call failed - PaymentId: {}", payment.getPaymentId(), error);
+            payment.transitionTo(PaymentStatus.FAILED);
+        } else {
+            payment.transitionTo(result.getStatus());
+        }
+        
+        try {
+            Timer.Sample persistence = paymentMetrics.startTimer();
+            Payment savedPayment = saveWithEvent(payment, acceptedStatus);
+            paymentMetrics.recordStage(persistence, PaymentMetrics.STAGE_PERSISTENCE, 
+                savedPayment.getMethod(), savedPayment.getStatus());
+            paymentCache.evict(savedPayment.getPaymentId(), savedPayment.getOrderId());
+            paymentMetrics.recordPayment(processing, savedPayment.getMethod(), savedPayment.getStatus());
+            logger.info("Async payment completed - Status: {}, TransactionId: {}", 
+                savedPayment.getStatus(), savedPayment.getTransactionId());
+        } catch (RuntimeException e) {
+            logger.error("Failed to store async payment result - PaymentId: {}, Status: {}", 
+                payment.getPaymentId(), payment.getStatus(), e);
+        } finally {
+            paymentMetrics.paymentsFinished(1);
+        }
+    }
+    
+    /**
+     * Waits for the gateway on the calling thread, treating gateway errors and timeouts
+     * as a failed payment. On a timeout the call is cancelled, so no retry charges the
+     * payment once it has been declined.
+     */
+    private GatewayResult awaitGatewayResult(Payment payment, CompletableFuture<GatewayResult> gatewayCall,
+                                             long timeoutMillis) {
+        String paymentId = payment.getPaymentId();
+        
+        try {
+            return gatewayCall.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Stop the retries before the decline is stored
+            gatewayCall.cancel(false);
+            logger.warn("Payment gateway timed out - PaymentId: {}", paymentId);
+            return GatewayResult.declined("Gateway timeout");
+        } catch (ExecutionException e) {
+            return gatewayFailure(payment, e.getCause());
+        } catch (InterruptedException e) {
+            logger.error("Payment processing interrupted - PaymentId: {}", paymentId, e);
+            Thread.currentThread().interrupt();
+            return GatewayResult.declined("Interrupted");
+        }
+    }
+    
+    /**
+     * The declined result recorded when the gateway call failed or timed out
+     */
+    private GatewayResult gatewayFailure(Payment payment, Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            logger.warn("Payment gateway timed out after retries - PaymentId: {}", payment.getPaymentId());
+            return GatewayResult.declined("Gateway timeout");
+        }
+        logger.error("Payment gateway error - PaymentId: {}", payment.getPaymentId(), cause);
+        return GatewayResult.declined("Gateway error");
+    }
+    
+    /**
+     * Starts the gateway call for the payment's method through the resilient client, which
+     * applies the bulkhead, circuit breaker, retries and per-attempt timeout. Throws
+     * RejectedExecutionException when the call cannot be started. Returns the client's own
+     * future, so cancelling it stops the retries.
+     */
+    private CompletableFuture<GatewayResult> startGatewayCall(Payment payment) {
+        return startGatewayCall(payment, System.nanoTime() 
+            + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getExecution().getGatewayPermitWait()));
+    }
+    
+    private CompletableFuture<GatewayResult> startGatewayCall(Payment payment, long permitDeadline) {
+        Timer.Sample gatewayTimer = paymentMetrics.startTimer();
+        CompletableFuture<GatewayResult> gatewayCall = resilientGatewayClient.charge(payment, permitDeadline);
+        gatewayCall.whenComplete((result, error) ->
+            paymentMetrics.recordStage(gatewayTimer, PaymentMetrics.STAGE_GATEWAY, payment.getMethod(),
+                error == null ? result.getStatus().name() : "ERROR"));
+        return gatewayCall;
+    }
+    
+    /**
+     * Cache misses for the same paymentId share one query (see PaymentCache#loadPayment).
+     * Runs outside the class-level transaction so cache hits and callers waiting on a
+     * shared query hold no JDBC connection; the query runs in its own read-only
+     * transaction, which a read replica can serve. Payments no longer in payments are
+     * looked up in payments_archive, and journaled payments are served from the journal
+     * until they are drained.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public PaymentResponse getPayment(String paymentId) {
         logger.debug("Retrieving payment - PaymentId: {}", paymentId);
         
-        Payment payment = paymentRepository.findByPaymentId(paymentId)
-                .orElseThrow(() -> {
-                    logger.error("Payment not found: {}", paymentId);
-                    return new RuntimeException("Payment not found: " + paymentId);
-                });
+        PaymentResponse journaled = paymentJournal.pending(paymentId);
+        if (journaled != null) {
+            return journaled;
+        }
+        
+        PaymentResponse payment;
+        if (ReadRouting.isPrimaryRequired()) {
+            // Read-your-writes: skip the cache, which a replica read may have filled with the
+            // state from before this client's write, and replace it with the primary's
+            long generation = paymentCache.paymentGeneration(paymentId);
+            payment = findPayment(paymentId);
+            if (payment != null) {
+                paymentCache.putPayment(payment, generation);
+            }
+        } else {
+            PaymentResponse cached = paymentCache.getPayment(paymentId);
+            if (cached != null) {
+                logger.debug("Payment served from cache - PaymentId: {}, Status: {}", paymentId, cached.getStatus());
+                return cached;
+            }
+            payment = paymentCache.loadPayment(paymentId, () -> findPayment(paymentId));
+        }
+        if (payment == null) {
+            logger.debug("Payment not found: {}", paymentId);
+            paymentMetrics.notFound("payment");
+            throw new PaymentNotFoundException(paymentId);
+        }
         
         logger.debug("Payment retrieved successfully - PaymentId: {}, Status: {}", 
             paymentId, payment.getStatus());
-        return convertToResponse(payment);
+        return payment;
     }
     
+    private PaymentResponse findPayment(String paymentId) {
+        return readOnlyTransactionTemplate.execute(status -> 
+            paymentRepository.findByPaymentId(paymentId).map(PaymentResponse::from)
+                    .or(() -> paymentArchiveRepository.findByPaymentId(paymentId))
+                    .orElse(null));
+    }
+    
+    /**
+     * Cache misses for the same orderId share one load, as in getPayment. An order can
+     * have both live and archived payments, so both tables are read, in one read-only
+     * transaction. Journaled payments not drained yet are added after the cache, which
+     * only holds database rows and is evicted when they are drained.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PaymentResponse> getPaymentsByOrderId(String orderId) {
         logger.debug("Retrieving payments for orderId: {}", orderId);
         
-        List<Payment> payments = paymentRepository.findByOrderId(orderId);
+        List<PaymentResponse> payments;
+        if (ReadRouting.isPrimaryRequired()) {
+            // Read-your-writes, as in getPayment
+            long generation = paymentCache.orderGeneration(orderId);
+            payments = findPaymentsByOrderId(orderId);
+            paymentCache.putPaymentsByOrderId(orderId, payments, generation);
+        } else {
+            List<PaymentResponse> cached = paymentCache.getPaymentsByOrderId(orderId);
+            if (cached != null) {
+                logger.debug("Served {} payments from cache for orderId: {}", cached.size(), orderId);
+                return cached;
+            }
+            payments = paymentCache.loadPaymentsByOrderId(orderId, () -> findPaymentsByOrderId(orderId));
+        }
+        payments = withJournaled(payments, paymentJournal.pendingForOrder(orderId));
         logger.debug("Found {} payments for orderId: {}", payments.size(), orderId);
+        return payments;
+    }
+    
+    // A drained payment stays pending until its batch is checkpointed, so skip those found
+    private static List<PaymentResponse> withJournaled(List<PaymentResponse> payments, List<PaymentResponse> journaled) {
+        if (journaled.isEmpty()) {
+            return payments;
+        }
+        Set<String> found = payments.stream().map(PaymentResponse::getPaymentId).collect(Collectors.toSet());
+        List<PaymentResponse> merged = new ArrayList<>(payments);
+        for (PaymentResponse payment : journaled) {
+            if (!found.contains(payment.getPaymentId())) {
+                merged.add(payment);
+            }
+        }
+        return merged;
+    }
+    
+    private List<PaymentResponse> findPaymentsByOrderId(String orderId) {
+        return readOnlyTransactionTemplate.execute(status -> {
+            List<PaymentResponse> found = paymentRepository.findByOrderId(orderId).stream()
+                    .map(PaymentResponse::from)
+                    .collect(Collectors.toList());
+            found.addAll(paymentArchiveRepository.findByOrderIds(List.of(orderId)));
+            return found;
+        });
+    }
+    
+    /**
+     * Payments for many paymentIds and orderIds in a few round trips, grouped by orderId.
+     * Ids are de-duplicated and bound lookupChunkSize at a time into one IN query per chunk.
+     * Every requested orderId is a key of the result, empty if it has no payments. The
+     * summary view selects only the PaymentSummary columns instead of loading entities.
+     * Archived payments are included, as in getPayment and getPaymentsByOrderId. Bypasses
+     * the cache: a bulk read gains little from it and would churn it.
+     */
+    @Transactional(readOnly = true)
+    public PaymentLookupResponse<?> lookupPayments(PaymentLookupRequest request) {
+        List<String> paymentIds = distinct(request.getPaymentIds());
+        List<String> orderIds = distinct(request.getOrderIds());
+        int maxIds = paymentConfig.getQuery().getMaxLookupIds();
+        if (paymentIds.isEmpty() && orderIds.isEmpty()) {
+            throw new InvalidPaymentRequestException("Lookup needs at least one paymentId or orderId");
+        }
+        if (paymentIds.size() + orderIds.size() > maxIds) {
+            throw new InvalidPaymentRequestException("Lookup of " + (paymentIds.size() + orderIds.size()) 
+                + " ids exceeds limit of " + maxIds);
+        }
+        logger.debug("Looking up payments - PaymentIds: {}, OrderIds: {}, Summary: {}", 
+            paymentIds.size(), orderIds.size(), request.isSummary());
+        
+        if (request.isSummary()) {
+            return lookup(paymentIds, orderIds, 
+                paymentRepository::findSummariesByPaymentIdIn, paymentArchiveRepository::findSummariesByPaymentIds, 
+                paymentRepository::findSummariesByOrderIdIn, paymentArchiveRepository::findSummariesByOrderIds, 
+                PaymentSummary::getPaymentId, PaymentSummary::getOrderId);
+        }
+        return lookup(paymentIds, orderIds, 
+            chunk -> paymentRepository.findByPaymentIdIn(chunk).stream().map(PaymentResponse::from).toList(), 
+            paymentArchiveRepository::findByPaymentIds, 
+            chunk -> paymentRepository.findByOrderIdIn(chunk).stream().map(PaymentResponse::from).toList(), 
+            paymentArchiveRepository::findByOrderIds, 
+            PaymentResponse::getPaymentId, PaymentResponse::getOrderId);
+    }
+    
+    private <T> PaymentLookupResponse<T> lookup(List<String> paymentIds, List<String> orderIds, 
+                                                Function<List<String>, List<T>> byPaymentIds, 
+                                                Function<List<String>, List<T>> archivedByPaymentIds, 
+                                                Function<List<String>, List<T>> byOrderIds, 
+                                                Function<List<String>, List<T>> archivedByOrderIds, 
+                                                Function<T, String> paymentIdOf, Function<T, String> orderIdOf) {
+        Map<String, List<T>> orders = new LinkedHashMap<>();
+        orderIds.forEach(orderId -> orders.put(orderId, new ArrayList<>()));
+        Set<String> found = new HashSet<>();
+        Consumer<T> add = payment -> {
+            found.add(paymentIdOf.apply(payment));
+            orders.computeIfAbsent(orderIdOf.apply(payment), orderId -> new ArrayList<>()).add(payment);
+        };
+        queryInChunks(orderIds, byOrderIds, add);
+        queryInChunks(orderIds, archivedByOrderIds, add);
         
-        return payments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        // paymentIds already returned under a requested orderId need no second query,
+        // and only those missing from payments are looked for in the archive
+        List<String> remaining = paymentIds.stream().filter(id -> !found.contains(id)).toList();
+        queryInChunks(remaining, byPaymentIds, add);
+        List<String> notLive = remaining.stream().filter(id -> !found.contains(id)).toList();
+        queryInChunks(notLive, archivedByPaymentIds, add);
+        List<String> missing = notLive.stream().filter(id -> !found.contains(id)).toList();
+        logger.debug("Lookup found {} payments across {} orders, {} paymentIds missing", 
+            found.size(), orders.size(), missing.size());
+        return new PaymentLookupResponse<>(orders, missing);
+    }
+    
+    private <T> void queryInChunks(List<String> ids, Function<List<String>, List<T>> query, Consumer<T> consumer) {
+        for (List<String> chunk : chunks(ids)) {
+            query.apply(chunk).forEach(consumer);
+        }
+    }
+    
+    private List<List<String>> chunks(List<String> ids) {
+        int chunkSize = Math.max(1, paymentConfig.getQuery().getLookupChunkSize());
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + chunkSize)));
+        }
+        return chunks;
+    }
+    
+    private static List<String> distinct(List<String> ids) {
+        if (ids == null) {
+            return List.of();
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id != null && !id.isBlank()) {
+                unique.add(id);
+            }
+        }
+        return List.copyOf(unique);
     }
     
-    public List<PaymentResponse> getAllPayments() {
-        logger.debug("Retrieving all payments");
+    /**
+     * List payments newest first, one keyset page at a time
+     */
+    @Transactional(readOnly = true)
+    public PaymentPage getPayments(PaymentSearchCriteria criteria, String cursor, Integer limit) {
+        PaymentConfig.Query query = paymentConfig.getQuery();
+        int pageSize = limit == null ? query.getDefaultPageSize() : Math.max(1, Math.min(limit, query.getMaxPageSize()));
+        PaymentCursor after = cursor == null || cursor.isBlank() ? null : PaymentCursor.decode(cursor);
+        logger.debug("Retrieving payments page - Status: {}, Method: {}, From: {}, To: {}, Limit: {}", 
+            criteria.getStatus(), criteria.getMethod(), criteria.getFrom(), criteria.getTo(), pageSize);
         
-        List<Payment> payments = paymentRepository.findAll();
-        logger.debug("Found {} payments in database", payments.size());
+        // Fetch one extra row to learn whether another page follows
+        List<PaymentResponse> payments = paymentQueryRepository.findPage(criteria, after, pageSize + 1);
+        String nextCursor = null;
+        if (payments.size() > pageSize) {
+            payments = payments.subList(0, pageSize);
+            PaymentResponse last = payments.get(pageSize - 1);
+            nextCursor = new PaymentCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        logger.debug("Found {} payments for page", payments.size());
         
-        return payments.stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+        return new PaymentPage(payments, nextCursor);
+    }
+    
+    /**
+     * Stream every matching payment to the consumer without buffering the result set
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void streamPayments(PaymentSearchCriteria criteria, Consumer<PaymentResponse> consumer) {
+        logger.debug("Streaming payments - Status: {}, Method: {}, From: {}, To: {}", 
+            criteria.getStatus(), criteria.getMethod(), criteria.getFrom(), criteria.getTo());
+        paymentQueryRepository.stream(criteria, consumer);
     }
     
     public PaymentResponse refundPayment(String paymentId) {
-        logger.info("Processing refund for paymentId: {}", paymentId);
+        logger.debug("Processing refund for paymentId: {}", paymentId);
         
-        Payment payment = paymentRepository.findByPaymentId(paymentId)
+        if (paymentJournal.pending(paymentId) != null) {
+            // Acknowledged from the journal but not in the database yet; retrying shortly succeeds
+            paymentMetrics.refund("conflict");
+            throw new PaymentConflictException("Payment " + paymentId 
+                + " is still being recorded, retry the refund shortly");
+        }
+        
+        // Conditional update instead of load-check-save, so concurrent refunds cannot both pass
+        int updated = transitionStatus(paymentId, PaymentStatus.COMPLETED, PaymentStatus.REFUNDED);
+        Payment updatedPayment = paymentRepository.findByPaymentId(paymentId)
                 .orElseThrow(() -> {
-                    logger.error("Payment not found for refund: {}", paymentId);
-                    return new RuntimeException("Payment not found: " + paymentId);
+                    if (paymentArchiveRepository.findByPaymentId(paymentId).isPresent()) {
+                        paymentMetrics.refund("conflict");
+                        return new PaymentConflictException("Payment " + paymentId 
+                            + " is archived and can no longer be refunded");
+                    }
+                    logger.debug("Payment not found for refund: {}", paymentId);
+                    paymentMetrics.notFound("refund");
+                    paymentMetrics.refund("not_found");
+                    return new PaymentNotFoundException(paymentId);
                 });
         
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            logger.error("Cannot refund payment - Status: {}, PaymentId: {}", payment.getStatus(), paymentId);
-            throw new RuntimeException("Only completed payments can be refunded");
+        if (updated == 0) {
+            logger.warn("Cannot refund payment - Status: {}, PaymentId: {}", updatedPayment.getStatus(), paymentId);
+            paymentMetrics.refund("conflict");
+            throw new PaymentConflictException("Only completed payments can be refunded, payment " 
+                + paymentId + " is " + updatedPayment.getStatus());
         }
         
-        logger.debug("Refunding payment - PaymentId: {}, Amount: {}", paymentId, payment.getAmount());
-        payment.setStatus(PaymentStatus.REFUNDED);
-        Payment updatedPayment = paymentRepository.save(payment);
+        logger.debug("Refunded payment - PaymentId: {}, Amount: {}", paymentId, updatedPayment.getAmount());
+        outboxService.recordStatusChange(updatedPayment);
+        paymentStatsService.recordTransition(updatedPayment, PaymentStatus.COMPLETED);
+        paymentCache.evict(updatedPayment.getPaymentId(), updatedPayment.getOrderId());
         
-        logger.info("Refund processed successfully - PaymentId: {}, Status: {}", 
-            paymentId, updatedPayment.getStatus());
+        paymentMetrics.refund("refunded");
+        logger.info("Refund processed - Status: {}", updatedPayment.getStatus());
         
-        return convertToResponse(updatedPayment);
+        return PaymentResponse.from(updatedPayment);
     }
     
-    private PaymentResponse convertToResponse(Payment payment) {
-        return new PaymentResponse(
-                payment.getId(),
-                payment.getPaymentId(),
-                payment.getOrderId(),
-                payment.getAmount(),
-                payment.getStatus(),
-                payment.getMethod(),
-                payment.getTransactionId(),
-                payment.getCreatedAt(),
-                payment.getUpdatedAt()
-        );
+    /**
+     * Move a payment between two statuses in a single conditional UPDATE.
+     * Returns 0 when the payment does not exist or is no longer in the expected status.
+     */
+    private int transitionStatus(String paymentId, PaymentStatus from, PaymentStatus to) {
+        if (!from.canTransitionTo(to)) {
+            throw new PaymentConflictException("Payment cannot move from " + from + " to " + to);
+        }
+        return paymentRepository.transitionStatus(paymentId, from, to, LocalDateTime.now());
     }
 }
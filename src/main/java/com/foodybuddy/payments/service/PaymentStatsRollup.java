@@ -0,0 +1,49 @@
+package com.foodybuddy.payments.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Payment Stats Rollup
+ *
+ * Fills an empty payment_stats from payments once all beans exist, before the web server
+ * starts taking payments, then periodically adds the in-memory counters to it. A final
+ * rollup runs on shutdown so pending deltas are not lost; it waits for a scheduled one
+ * still in progress (PaymentStatsService#flush is serialized).
+ * Disable with payment.stats.rollup-enabled=false (deltas then stay in memory).
+ */
+@Component
+@ConditionalOnProperty(prefix = "payment.stats", name = "rollup-enabled", matchIfMissing = true)
+public class PaymentStatsRollup implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatsRollup.class);
+    private final PaymentStatsService paymentStatsService;
+
+    public PaymentStatsRollup(PaymentStatsService paymentStatsService) {
+        this.paymentStatsService = paymentStatsService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        paymentStatsService.rebuildIfEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${payment.stats.flush-interval:10000}")
+    public void rollup() {
+        try {
+            paymentStatsService.flush();
+        } catch (RuntimeException e) {
+            logger.error("Payment stats rollup failed, deltas will be retried", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        rollup();
+    }
+}
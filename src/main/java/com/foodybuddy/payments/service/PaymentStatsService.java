@@ -0,0 +1,326 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentStatsEntry;
+import com.foodybuddy.payments.dto.PaymentStatsResponse;
+import com.foodybuddy.payments.dto.StatsGranularity;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.repository.PaymentStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Payment Stats Service
+ *
+ * Keeps payment counts and exact totals per created_at minute, status, method and
+ * currency without scanning payments. Each committed status change adds -1 to the old
+ * status and +1 to the new one in striped LongAdder counters; rollups periodically add
+ * the counters' unflushed deltas to payment_stats. Reads combine the rollup rows with the
+ * deltas this instance has not flushed yet, so other instances' changes show up within
+ * one flush interval.
+ *
+ * Counters are never reset, only their flushed watermark advances, so a rollup cannot
+ * lose an increment that races it. Idle counters for past minutes are unlinked after a
+ * rollup and flushed once more on the next one, catching any writer still holding them.
+ */
+@Service
+public class PaymentStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentStatsService.class);
+    private final PaymentStatsRepository paymentStatsRepository;
+    private final PaymentConfig paymentConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<StatsKey, StatsCell> counters = new ConcurrentHashMap<>();
+    // Only touched by flush, which holds this service's lock
+    private List<StatsCell> retired = new ArrayList<>();
+
+    public PaymentStatsService(PaymentStatsRepository paymentStatsRepository, PaymentConfig paymentConfig,
+                               PlatformTransactionManager transactionManager) {
+        this.paymentStatsRepository = paymentStatsRepository;
+        this.paymentConfig = paymentConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Count a payment that moved from previousStatus (null for a new payment) to its
+     * current status. Inside a transaction the change is counted once it commits.
+     */
+    public void recordTransition(Payment payment, PaymentStatus previousStatus) {
+        if (payment.getCreatedAt() == null || payment.getMethod() == null || payment.getAmount() == null) {
+            return;
+        }
+        PaymentStatus newStatus = payment.getStatus();
+        LocalDateTime minute = payment.getCreatedAt().truncatedTo(ChronoUnit.MINUTES);
+        PaymentMethod method = payment.getMethod();
+        Money amount = payment.getAmount();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyTransition(minute, method, amount, previousStatus, newStatus);
+                }
+            });
+        } else {
+            applyTransition(minute, method, amount, previousStatus, newStatus);
+        }
+    }
+
+    private void applyTransition(LocalDateTime minute, PaymentMethod method, Money amount,
+                                 PaymentStatus previousStatus, PaymentStatus newStatus) {
+        if (previousStatus == newStatus) {
+            return;
+        }
+        String currency = amount.getCurrency();
+        if (previousStatus != null) {
+            counter(new StatsKey(minute, previousStatus, method, currency)).add(-1, -amount.getMinorUnits());
+        }
+        if (newStatus != null) {
+            counter(new StatsKey(minute, newStatus, method, currency)).add(1, amount.getMinorUnits());
+        }
+    }
+
+    private StatsCell counter(StatsKey key) {
+        StatsCell cell = counters.get(key);
+        return cell != null ? cell : counters.computeIfAbsent(key, StatsCell::new);
+    }
+
+    /**
+     * Counts and totals for payments created in [from, to), with from rounded down to
+     * a bucket boundary. Defaults to the 24 buckets before now.
+     */
+    public PaymentStatsResponse getStats(StatsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        StatsGranularity resolved = granularity == null ? StatsGranularity.HOUR : granularity;
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = resolved.truncate(from == null ? end.minus(24, resolved.getUnit()) : from);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        int maxBuckets = paymentConfig.getStats().getMaxBuckets();
+        if (resolved.getUnit().between(start, end) >= maxBuckets) {
+            throw new IllegalArgumentException("Stats range spans more than " + maxBuckets + " "
+                + resolved.name().toLowerCase() + " buckets");
+        }
+
+        Map<StatsKey, long[]> buckets = new TreeMap<>();
+        for (PaymentStatsEntry row : paymentStatsRepository.findBuckets(resolved, start, end)) {
+            StatsKey key = new StatsKey(row.getBucketStart(), row.getStatus(), row.getMethod(),
+                row.getAmount().getCurrency());
+            add(buckets, key, row.getCount(), row.getAmount().getMinorUnits());
+        }
+        for (StatsCell cell : counters.values()) {
+            LocalDateTime minute = cell.key.minute;
+            if (minute.isBefore(start) || !minute.isBefore(end)) {
+                continue;
+            }
+            long count = cell.count.sum() - cell.flushedCount;
+            long amountMinor = cell.amountMinor.sum() - cell.flushedAmountMinor;
+            if (count != 0 || amountMinor != 0) {
+                add(buckets, cell.key.truncate(resolved), count, amountMinor);
+            }
+        }
+
+        List<PaymentStatsEntry> bucketEntries = toEntries(buckets, Function.identity());
+        List<PaymentStatsEntry> byStatus = toEntries(buckets,
+            key -> new StatsKey(null, key.status, null, key.currency));
+        List<PaymentStatsEntry> byMethod = toEntries(buckets,
+            key -> new StatsKey(null, null, key.method, key.currency));
+        return new PaymentStatsResponse(resolved, start, end, byStatus, byMethod, bucketEntries);
+    }
+
+    private static List<PaymentStatsEntry> toEntries(Map<StatsKey, long[]> buckets,
+                                                     Function<StatsKey, StatsKey> grouping) {
+        Map<StatsKey, long[]> grouped = new TreeMap<>();
+        buckets.forEach((key, totals) -> add(grouped, grouping.apply(key), totals[0], totals[1]));
+        List<PaymentStatsEntry> entries = new ArrayList<>(grouped.size());
+        grouped.forEach((key, totals) -> {
+            // Drop groups whose payments all moved on to another status
+            if (totals[0] != 0 || totals[1] != 0) {
+                entries.add(key.toEntry(totals[0], totals[1]));
+            }
+        });
+        return entries;
+    }
+
+    private static void add(Map<StatsKey, long[]> totals, StatsKey key, long count, long amountMinor) {
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0] += count;
+        total[1] += amountMinor;
+    }
+
+    /**
+     * Add every unflushed delta to payment_stats in one transaction, returning the number
+     * of counters flushed. On failure nothing is marked flushed and the next call retries.
+     * Calls are serialized, so the shutdown flush cannot add the same deltas again while a
+     * scheduled rollup is still writing them.
+     */
+    public synchronized int flush() {
+        List<StatsCell> dirty = new ArrayList<>();
+        List<long[]> deltas = new ArrayList<>();
+        collectDeltas(retired, dirty, deltas);
+        collectDeltas(counters.values(), dirty, deltas);
+
+        if (!dirty.isEmpty()) {
+            Map<StatsGranularity, List<PaymentStatsEntry>> rows = rollupRows(dirty, deltas);
+            transactionTemplate.executeWithoutResult(status -> {
+                paymentStatsRepository.lockForRollup();
+                rows.forEach(paymentStatsRepository::addDeltas);
+            });
+            for (int i = 0; i < dirty.size(); i++) {
+                dirty.get(i).flushedCount += deltas.get(i)[0];
+                dirty.get(i).flushedAmountMinor += deltas.get(i)[1];
+            }
+        }
+
+        // Unlink idle counters for earlier minutes; late writers are caught by the next flush
+        LocalDateTime idleBefore = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1);
+        List<StatsCell> nowRetired = new ArrayList<>();
+        for (StatsCell cell : counters.values()) {
+            if (cell.key.minute.isBefore(idleBefore) && cell.isFlushed() && counters.remove(cell.key, cell)) {
+                nowRetired.add(cell);
+            }
+        }
+        retired = nowRetired;
+
+        if (!dirty.isEmpty()) {
+            logger.debug("Flushed payment stats - Counters: {}, Retired: {}", dirty.size(), nowRetired.size());
+        }
+        return dirty.size();
+    }
+
+    private static void collectDeltas(Iterable<StatsCell> cells, List<StatsCell> dirty, List<long[]> deltas) {
+        for (StatsCell cell : cells) {
+            long count = cell.count.sum() - cell.flushedCount;
+            long amountMinor = cell.amountMinor.sum() - cell.flushedAmountMinor;
+            if (count != 0 || amountMinor != 0) {
+                dirty.add(cell);
+                deltas.add(new long[] {count, amountMinor});
+            }
+        }
+    }
+
+    private static Map<StatsGranularity, List<PaymentStatsEntry>> rollupRows(List<StatsCell> dirty,
+                                                                           List<long[]> deltas) {
+        Map<StatsGranularity, List<PaymentStatsEntry>> rows = new EnumMap<>(StatsGranularity.class);
+        for (StatsGranularity granularity : StatsGranularity.values()) {
+            Map<StatsKey, long[]> totals = new TreeMap<>();
+            for (int i = 0; i < dirty.size(); i++) {
+                add(totals, dirty.get(i).key.truncate(granularity), deltas.get(i)[0], deltas.get(i)[1]);
+            }
+            // TreeMap order is key order, so every instance upserts rows in the same sequence
+            List<PaymentStatsEntry> entries = new ArrayList<>(totals.size());
+            totals.forEach((key, total) -> entries.add(key.toEntry(total[0], total[1])));
+            rows.put(granularity, entries);
+        }
+        return rows;
+    }
+
+    /**
+     * Fill payment_stats from payments if it is empty, e.g. on the first start after
+     * payment_stats was created. Returns false when the table already had rows.
+     */
+    public boolean rebuildIfEmpty() {
+        Integer rows = transactionTemplate.execute(status -> {
+            paymentStatsRepository.lockForRebuild();
+            return paymentStatsRepository.isEmpty() ? paymentStatsRepository.rebuildFromPayments() : null;
+        });
+        if (rows == null) {
+            return false;
+        }
+        logger.info("Rebuilt payment stats from payments - Rows: {}", rows);
+        return true;
+    }
+
+    private static final class StatsKey implements Comparable<StatsKey> {
+        private static final Comparator<StatsKey> ORDER = Comparator
+                .comparing((StatsKey key) -> key.minute, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(key -> key.status, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(key -> key.method, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(key -> key.currency);
+
+        private final LocalDateTime minute;
+        private final PaymentStatus status;
+        private final PaymentMethod method;
+        private final String currency;
+
+        private StatsKey(LocalDateTime minute, PaymentStatus status, PaymentMethod method, String currency) {
+            this.minute = minute;
+            this.status = status;
+            this.method = method;
+            this.currency = currency;
+        }
+
+        StatsKey truncate(StatsGranularity granularity) {
+            return new StatsKey(granularity.truncate(minute), status, method, currency);
+        }
+
+        PaymentStatsEntry toEntry(long count, long amountMinor) {
+            return new PaymentStatsEntry(minute, status, method, count, Money.ofMinor(amountMinor, currency));
+        }
+
+        @Override
+        public int compareTo(StatsKey other) {
+            return ORDER.compare(this, other);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof StatsKey)) {
+                return false;
+            }
+            StatsKey other = (StatsKey) o;
+            return Objects.equals(minute, other.minute) && status == other.status
+                    && method == other.method && Objects.equals(currency, other.currency);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(minute, status, method, currency);
+        }
+    }
+
+    private static final class StatsCell {
+        private final StatsKey key;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder amountMinor = new LongAdder();
+        // Portion of the sums already added to payment_stats, advanced by the rollup only
+        private volatile long flushedCount;
+        private volatile long flushedAmountMinor;
+
+        private StatsCell(StatsKey key) {
+            this.key = key;
+        }
+
+        void add(long countDelta, long amountDelta) {
+            count.add(countDelta);
+            amountMinor.add(amountDelta);
+        }
+
+        boolean isFlushed() {
+            return count.sum() == flushedCount && amountMinor.sum() == flushedAmountMinor;
+        }
+    }
+}
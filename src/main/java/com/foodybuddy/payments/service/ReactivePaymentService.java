@@ -0,0 +1,296 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentRow;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.exception.PaymentConflictException;
+import com.foodybuddy.payments.exception.PaymentNotFoundException;
+import com.foodybuddy.payments.gateway.GatewayResult;
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.repository.PooledSequence;
+import com.foodybuddy.payments.repository.ReactiveOutboxRepository;
+import com.foodybuddy.payments.repository.ReactivePaymentRepository;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.ConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reactive Payment Service
+ *
+ * Non-blocking payment flow for the reactive profile. Processing, lookups, refunds and
+ * exports never block the event loop: the gateway call is already a CompletableFuture,
+ * and the payment with its outbox event is written through R2DBC in one reactive
+ * transaction. Validation (PaymentFactory), gateway resilience, caching, metrics and
+ * stats are shared with PaymentService, so both stacks behave the same; only the wait
+ * for a gateway permit differs, as a timer-driven retry instead of a blocking wait.
+ *
+ * Payments are always answered with their final status, whatever
+ * payment.execution.async says: waiting for the gateway no longer holds a thread.
+ * Requests with an Idempotency-Key go through PaymentService on boundedElastic, since
+ * the idempotency protocol holds JDBC transactions while it waits for other requests.
+ */
+@Service
+@Profile("reactive")
+public class ReactivePaymentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePaymentService.class);
+    private final ReactivePaymentRepository paymentRepository;
+    private final ReactiveOutboxRepository outboxRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final PaymentService paymentService;
+    private final PaymentFactory paymentFactory;
+    private final ResilientGatewayClient resilientGatewayClient;
+    private final OutboxService outboxService;
+    private final PaymentStatsService paymentStatsService;
+    private final PaymentCache paymentCache;
+    private final PaymentMetrics paymentMetrics;
+    private final PaymentConfig paymentConfig;
+    private final IdGenerator idGenerator;
+    // Same sequence and block size as Payment's JPA generator
+    private final PooledSequence paymentIds;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactivePaymentService(ReactivePaymentRepository paymentRepository,
+                                  ReactiveOutboxRepository outboxRepository,
+                                  R2dbcEntityTemplate entityTemplate,
+                                  PaymentService paymentService,
+                                  PaymentFactory paymentFactory,
+                                  ResilientGatewayClient resilientGatewayClient,
+                                  OutboxService outboxService,
+                                  PaymentStatsService paymentStatsService,
+                                  PaymentCache paymentCache,
+                                  PaymentMetrics paymentMetrics,
+                                  PaymentConfig paymentConfig,
+                                  IdGenerator idGenerator,
+                                  DatabaseClient databaseClient,
+                                  ConnectionFactory connectionFactory) {
+        this.paymentRepository = paymentRepository;
+        this.outboxRepository = outboxRepository;
+        this.entityTemplate = entityTemplate;
+        this.paymentService = paymentService;
+        this.paymentFactory = paymentFactory;
+        this.resilientGatewayClient = resilientGatewayClient;
+        this.outboxService = outboxService;
+        this.paymentStatsService = paymentStatsService;
+        this.paymentCache = paymentCache;
+        this.paymentMetrics = paymentMetrics;
+        this.paymentConfig = paymentConfig;
+        this.idGenerator = idGenerator;
+        this.paymentIds = new PooledSequence(databaseClient, "payments_seq", 50);
+        // Not a bean: a second TransactionManager bean would make @Transactional ambiguous
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        logger.info("ReactivePaymentService initialized - Timeout: {}ms", paymentConfig.getProcessing().getTimeout());
+    }
+
+    public Mono<PaymentResponse> processPayment(ProcessPaymentRequest request, String idempotencyKey) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return Mono.fromCallable(() -> paymentService.processPayment(request, idempotencyKey))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.defer(() -> process(request));
+    }
+
+    private Mono<PaymentResponse> process(ProcessPaymentRequest request) {
+        Timer.Sample processing = paymentMetrics.startTimer();
+        Payment payment = paymentFactory.validatedPayment(request, idGenerator.nextPaymentId());
+        logger.debug("Processing payment - PaymentId: {}, OrderId: {}, Amount: {}, Method: {}",
+            payment.getPaymentId(), payment.getOrderId(), payment.getAmount(), payment.getMethod());
+
+        paymentMetrics.paymentsStarted(1);
+        return gatewayCall(payment)
+                .timeout(Duration.ofMillis(paymentConfig.getProcessing().getTimeout()))
+                .onErrorResume(error -> !(error instanceof RejectedExecutionException),
+                        error -> Mono.just(gatewayFailure(payment, error)))
+                .flatMap(result -> {
+                    payment.transitionTo(result.getStatus());
+                    Timer.Sample persistence = paymentMetrics.startTimer();
+                    return insertWithEvent(payment).doOnNext(saved -> paymentMetrics.recordStage(persistence,
+                        PaymentMetrics.STAGE_PERSISTENCE, saved.getMethod(), saved.getStatus()));
+                })
+                .map(saved -> {
+                    paymentStatsService.recordTransition(saved, null);
+                    paymentCache.evict(saved.getPaymentId(), saved.getOrderId());
+                    logger.info("Payment processed - PaymentId: {}, Status: {}, TransactionId: {}",
+                        saved.getPaymentId(), saved.getStatus(), saved.getTransactionId());
+                    paymentMetrics.recordPayment(processing, saved.getMethod(), saved.getStatus());
+                    return PaymentResponse.from(saved);
+                })
+                .doFinally(signal -> paymentMetrics.paymentsFinished(1));
+    }
+
+    /**
+     * The gateway call through the resilient client, timed like PaymentService's. Signals
+     * RejectedExecutionException when no permit frees up or the circuit is open.
+     */
+    private Mono<GatewayResult> gatewayCall(Payment payment) {
+        return Mono.defer(() -> {
+            Timer.Sample gatewayTimer = paymentMetrics.startTimer();
+            return resilientGatewayClient.chargeReactive(payment)
+                    .doOnSuccess(result -> paymentMetrics.recordStage(gatewayTimer, PaymentMetrics.STAGE_GATEWAY,
+                        payment.getMethod(), result.getStatus().name()))
+                    .doOnError(error -> !(error instanceof RejectedExecutionException),
+                        error -> paymentMetrics.recordStage(gatewayTimer, PaymentMetrics.STAGE_GATEWAY,
+                            payment.getMethod(), "ERROR"));
+        });
+    }
+
+    /**
+     * The declined result recorded when the gateway call failed or timed out
+     */
+    private GatewayResult gatewayFailure(Payment payment, Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            logger.warn("Payment gateway timed out - PaymentId: {}", payment.getPaymentId());
+            return GatewayResult.declined("Gateway timeout");
+        }
+        logger.error("Payment gateway error - PaymentId: {}", payment.getPaymentId(), cause);
+        return GatewayResult.declined("Gateway error");
+    }
+
+    /**
+     * Inserts the payment and its outbox event in one R2DBC transaction
+     */
+    private Mono<Payment> insertWithEvent(Payment payment) {
+        return paymentIds.next()
+                .flatMap(id -> {
+                    payment.setId(id);
+                    return paymentRepository.save(PaymentRow.from(payment));
+                })
+                .map(PaymentRow::toPayment)
+                .flatMap(saved -> outboxRepository.save(outboxService.statusChangedEvent(saved)).thenReturn(saved))
+                .as(transactionalOperator::transactional);
+    }
+
+    public Mono<PaymentResponse> getPayment(String paymentId) {
+        return Mono.defer(() -> {
+            PaymentResponse cached = paymentCache.getPayment(paymentId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = paymentCache.paymentGeneration(paymentId);
+            return paymentRepository.findByPaymentId(paymentId)
+                    .switchIfEmpty(findArchived(paymentId))
+                    .map(row -> PaymentResponse.from(row.toPayment()))
+                    .doOnNext(payment -> paymentCache.putPayment(payment, generation))
+                    .switchIfEmpty(Mono.error(() -> {
+                        logger.debug("Payment not found: {}", paymentId);
+                        paymentMetrics.notFound("payment");
+                        return new PaymentNotFoundException(paymentId);
+                    }));
+        });
+    }
+
+    public Mono<List<PaymentResponse>> getPaymentsByOrderId(String orderId) {
+        return Mono.defer(() -> {
+            List<PaymentResponse> cached = paymentCache.getPaymentsByOrderId(orderId);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            long generation = paymentCache.orderGeneration(orderId);
+            Flux<PaymentRow> archived = selectArchived(Query.query(Criteria.where("orderId").is(orderId)));
+            return Flux.concat(paymentRepository.findByOrderId(orderId), archived)
+                    .map(row -> PaymentResponse.from(row.toPayment()))
+                    .collectList()
+                    .doOnNext(payments -> paymentCache.putPaymentsByOrderId(orderId, payments, generation));
+        });
+    }
+
+    /**
+     * Every matching payment, newest first, read as the client consumes them. Live and
+     * archived payments are read as two ordered streams and merged.
+     */
+    public Flux<PaymentResponse> streamPayments(PaymentSearchCriteria criteria) {
+        Criteria where = Criteria.empty();
+        if (criteria.getStatus() != null) {
+            where = where.and("status").is(criteria.getStatus().name());
+        }
+        if (criteria.getMethod() != null) {
+            where = where.and("method").is(criteria.getMethod().name());
+        }
+        if (criteria.getFrom() != null) {
+            where = where.and("createdAt").greaterThanOrEquals(criteria.getFrom());
+        }
+        if (criteria.getTo() != null) {
+            where = where.and("createdAt").lessThan(criteria.getTo());
+        }
+        Query query = Query.query(where).sort(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        Comparator<PaymentRow> newestFirst = Comparator.comparing(PaymentRow::getCreatedAt)
+                .thenComparing(PaymentRow::getId)
+                .reversed();
+        return Flux.mergeComparing(newestFirst,
+                        entityTemplate.select(PaymentRow.class).matching(query).all(),
+                        selectArchived(query))
+                .map(row -> PaymentResponse.from(row.toPayment()));
+    }
+
+    /**
+     * Conditional COMPLETED to REFUNDED update plus its outbox event, in one R2DBC transaction
+     */
+    public Mono<PaymentResponse> refundPayment(String paymentId) {
+        Mono<Payment> refund = paymentRepository
+                .transitionStatus(paymentId, PaymentStatus.COMPLETED, PaymentStatus.REFUNDED, LocalDateTime.now())
+                .flatMap(updated -> paymentRepository.findByPaymentId(paymentId)
+                        .switchIfEmpty(findArchived(paymentId).flatMap(archived -> {
+                            paymentMetrics.refund("conflict");
+                            return Mono.<PaymentRow>error(new PaymentConflictException("Payment " + paymentId
+                                + " is archived and can no longer be refunded"));
+                        }))
+                        .switchIfEmpty(Mono.error(() -> {
+                            paymentMetrics.notFound("refund");
+                            paymentMetrics.refund("not_found");
+                            return new PaymentNotFoundException(paymentId);
+                        }))
+                        .map(PaymentRow::toPayment)
+                        .flatMap(payment -> {
+                            if (updated == 0) {
+                                logger.warn("Cannot refund payment - Status: {}, PaymentId: {}",
+                                    payment.getStatus(), paymentId);
+                                paymentMetrics.refund("conflict");
+                                return Mono.error(new PaymentConflictException("Only completed payments can be "
+                                    + "refunded, payment " + paymentId + " is " + payment.getStatus()));
+                            }
+                            return outboxRepository.save(outboxService.statusChangedEvent(payment))
+                                    .thenReturn(payment);
+                        }));
+        return refund.as(transactionalOperator::transactional)
+                .map(payment -> {
+                    paymentStatsService.recordTransition(payment, PaymentStatus.COMPLETED);
+                    paymentCache.evict(payment.getPaymentId(), payment.getOrderId());
+                    paymentMetrics.refund("refunded");
+                    logger.info("Refund processed - PaymentId: {}, Status: {}", paymentId, payment.getStatus());
+                    return PaymentResponse.from(payment);
+                });
+    }
+
+    private Mono<PaymentRow> findArchived(String paymentId) {
+        return selectArchived(Query.query(Criteria.where("paymentId").is(paymentId))).next();
+    }
+
+    // Archived payments have the columns of payments, so they map to PaymentRow as well
+    private Flux<PaymentRow> selectArchived(Query query) {
+        return entityTemplate.select(PaymentRow.class).from("payments_archive").matching(query).all();
+    }
+}
@@ -0,0 +1,216 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.gateway.GatewayCircuitBreaker;
+import com.foodybuddy.payments.gateway.GatewayResult;
+import com.foodybuddy.payments.gateway.PaymentGatewayRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resilient Gateway Client
+ *
+ * Wraps every gateway call in, from the outside in:
+ * - a bulkhead: at most max-concurrent-gateway-calls calls in flight, waiting up to
+ *   gateway-permit-wait for a permit before rejecting. charge blocks the caller for that
+ *   wait; chargeReactive never blocks and polls for a permit on the Reactor timer instead
+ * - a circuit breaker per payment method, rejecting calls while the method's gateway
+ *   keeps failing
+ * - retries of gateway errors and timeouts, up to processing.retry-attempts times with
+ *   exponential backoff and full jitter, all within processing.timeout
+ * - a timeout of processing.attempt-timeout on each attempt
+ *
+ * Declines are final and never retried. Retries charge the same payment again, so
+ * gateways must treat the paymentId as the provider's idempotency key. Rejections throw
+ * RejectedExecutionException before any gateway call; everything else is reported
+ * through the returned future, which completes exceptionally once retries run out.
+ * A caller that stops waiting cancels the future: once cancel returns no further attempt
+ * is started, so a payment declined on the caller's timeout is never charged afterwards.
+ */
+@Component
+public class ResilientGatewayClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientGatewayClient.class);
+    // Bounds of the backoff between non-blocking permit attempts
+    private static final Duration PERMIT_RETRY_MIN_BACKOFF = Duration.ofMillis(1);
+    private static final Duration PERMIT_RETRY_MAX_BACKOFF = Duration.ofMillis(20);
+    private final PaymentGatewayRegistry paymentGatewayRegistry;
+    private final PaymentConfig paymentConfig;
+    private final PaymentMetrics paymentMetrics;
+    private final Semaphore permits;
+    private final Map<PaymentMethod, GatewayCircuitBreaker> circuitBreakers = new EnumMap<>(PaymentMethod.class);
+
+    public ResilientGatewayClient(PaymentGatewayRegistry paymentGatewayRegistry, PaymentConfig paymentConfig,
+                                  PaymentMetrics paymentMetrics) {
+        this.paymentGatewayRegistry = paymentGatewayRegistry;
+        this.paymentConfig = paymentConfig;
+        this.paymentMetrics = paymentMetrics;
+        int maxConcurrentGatewayCalls = paymentConfig.getExecution().getMaxConcurrentGatewayCalls();
+        this.permits = new Semaphore(maxConcurrentGatewayCalls, true);
+        paymentMetrics.registerGatewayInFlight(() -> maxConcurrentGatewayCalls - permits.availablePermits());
+        for (PaymentMethod method : PaymentMethod.values()) {
+            GatewayCircuitBreaker circuitBreaker = new GatewayCircuitBreaker(method.name(),
+                paymentConfig.getCircuitBreaker());
+            circuitBreakers.put(method, circuitBreaker);
+            paymentMetrics.registerCircuitState(method, circuitBreaker::getState);
+        }
+        logger.info("ResilientGatewayClient initialized - Max concurrent calls: {}, Retries: {}, Attempt timeout: {}ms",
+            maxConcurrentGatewayCalls, paymentConfig.getProcessing().getRetryAttempts(),
+            paymentConfig.getProcessing().getAttemptTimeout());
+    }
+
+    /**
+     * Charge the payment, retrying gateway errors and timeouts within processing.timeout.
+     * Cancel the returned future when giving up on it, to stop the retries.
+     */
+    public CompletableFuture<GatewayResult> charge(Payment payment) {
+        return charge(payment, System.nanoTime()
+            + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getExecution().getGatewayPermitWait()));
+    }
+
+    /**
+     * charge, waiting for a permit only until permitDeadline (System.nanoTime). For callers
+     * taking many permits in a row, such as a batch, so that together they wait at most
+     * gateway-permit-wait; once the deadline has passed a permit is only taken if one is free.
+     */
+    public CompletableFuture<GatewayResult> charge(Payment payment, long permitDeadline) {
+        PaymentMethod method = payment.getMethod();
+        try {
+            if (!permits.tryAcquire(Math.max(0, permitDeadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                paymentMetrics.gatewayRejected(method, "bulkhead");
+                throw new RejectedExecutionException("Gateway concurrency limit reached");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a gateway permit", e);
+        }
+        return chargeWithPermit(payment);
+    }
+
+    /**
+     * charge for callers that must not block, such as the event loop: a permit is taken
+     * only if one is free right away, otherwise the attempt is repeated with a short
+     * backoff on the Reactor timer until gateway-permit-wait has passed. Rejections are
+     * signalled as RejectedExecutionException, before any gateway call. Cancelling the
+     * subscription, as an outer timeout does, cancels the charge and stops its retries.
+     */
+    public Mono<GatewayResult> chargeReactive(Payment payment) {
+        return Mono.defer(() -> {
+            long permitDeadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getExecution().getGatewayPermitWait());
+            return Mono.defer(() -> permits.tryAcquire()
+                            ? Mono.fromFuture(chargeWithPermit(payment), false)
+                            : Mono.<GatewayResult>error(new BulkheadFullException()))
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, PERMIT_RETRY_MIN_BACKOFF)
+                            .maxBackoff(PERMIT_RETRY_MAX_BACKOFF)
+                            .filter(error -> error instanceof BulkheadFullException
+                                && System.nanoTime() < permitDeadline))
+                    .doOnError(BulkheadFullException.class,
+                            error -> paymentMetrics.gatewayRejected(payment.getMethod(), "bulkhead"));
+        });
+    }
+
+    // Holds one of the permits, which is released once the returned future completes
+    private CompletableFuture<GatewayResult> chargeWithPermit(Payment payment) {
+        PaymentMethod method = payment.getMethod();
+        GatewayCircuitBreaker circuitBreaker = circuitBreakers.get(method);
+        if (!circuitBreaker.tryAcquire()) {
+            permits.release();
+            paymentMetrics.gatewayRejected(method, "circuit_open");
+            throw new RejectedExecutionException("Payment gateway unavailable for " + method);
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(paymentConfig.getProcessing().getTimeout());
+        CompletableFuture<GatewayResult> result = new GatewayCall();
+        result.whenComplete((gatewayResult, error) -> permits.release());
+        attempt(payment, circuitBreaker, 0, deadline, result);
+        return result;
+    }
+
+    private void attempt(Payment payment, GatewayCircuitBreaker circuitBreaker, int retry, long deadline,
+                         CompletableFuture<GatewayResult> result) {
+        long attemptTimeout = Math.min(TimeUnit.MILLISECONDS.toNanos(paymentConfig.getProcessing().getAttemptTimeout()),
+            deadline - System.nanoTime());
+        CompletableFuture<GatewayResult> call;
+        // Under the lock cancel takes, so no attempt starts once the caller has given up
+        synchronized (result) {
+            if (result.isDone()) {
+                circuitBreaker.release();
+                return;
+            }
+            try {
+                call = paymentGatewayRegistry.gatewayFor(payment.getMethod()).charge(payment).copy();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+        }
+        call.orTimeout(Math.max(0, attemptTimeout), TimeUnit.NANOSECONDS).whenComplete((gatewayResult, error) -> {
+            if (error == null) {
+                circuitBreaker.onSuccess();
+                result.complete(gatewayResult);
+                return;
+            }
+            circuitBreaker.onFailure();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            long backoff = backoffNanos(retry);
+            if (result.isDone()
+                    || retry >= paymentConfig.getProcessing().getRetryAttempts()
+                    || System.nanoTime() + backoff >= deadline
+                    || !circuitBreaker.tryAcquire()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            logger.debug("Retrying gateway call - PaymentId: {}, Retry: {}, Error: {}",
+                payment.getPaymentId(), retry + 1, cause.toString());
+            paymentMetrics.gatewayRetry(payment.getMethod());
+            CompletableFuture.delayedExecutor(backoff, TimeUnit.NANOSECONDS)
+                .execute(() -> attempt(payment, circuitBreaker, retry + 1, deadline, result));
+        });
+    }
+
+    /**
+     * The future of one charge. cancel waits for an attempt that is starting, see attempt
+     */
+    private static final class GatewayCall extends CompletableFuture<GatewayResult> {
+
+        @Override
+        public synchronized boolean cancel(boolean mayInterruptIfRunning) {
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * No gateway permit was free when chargeReactive asked for one
+     */
+    private static final class BulkheadFullException extends RejectedExecutionException {
+
+        BulkheadFullException() {
+            super("Gateway concurrency limit reached");
+        }
+    }
+
+    /**
+     * Full jitter: a random wait up to retryBackoff * 2^retry, capped at retryMaxBackoff
+     */
+    private long backoffNanos(int retry) {
+        long base = paymentConfig.getProcessing().getRetryBackoff();
+        long cap = Math.min(paymentConfig.getProcessing().getRetryMaxBackoff(), base << Math.min(retry, 20));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+}
@@ -0,0 +1,85 @@
+package com.foodybuddy.payments.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Merges concurrent loads of the same key into one
+ *
+ * The first caller for a key runs the loader on its own thread; callers arriving while it
+ * runs wait for its result instead of loading again. A waiter gives up after maxWait and
+ * runs the loader itself, so a stalled load never delays others by more than that.
+ * forget(key) detaches the running load, so callers arriving after a write start a fresh
+ * one instead of joining a load that may have read the old data.
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * How a call was answered, for metrics
+     */
+    public enum Outcome {
+        LOADED, COALESCED, WAIT_TIMEOUT
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitMillis;
+    private final Consumer<Outcome> outcomes;
+
+    public SingleFlight(long maxWaitMillis, Consumer<Outcome> outcomes) {
+        this.maxWaitMillis = maxWaitMillis;
+        this.outcomes = outcomes;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running == null) {
+            outcomes.accept(Outcome.LOADED);
+            return load(key, call, loader);
+        }
+
+        try {
+            V value = running.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            outcomes.accept(Outcome.COALESCED);
+            return value;
+        } catch (TimeoutException e) {
+            outcomes.accept(Outcome.WAIT_TIMEOUT);
+            return loader.get();
+        } catch (ExecutionException e) {
+            // The shared load failed; report it to every waiter as it was thrown
+            outcomes.accept(Outcome.COALESCED);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Coalesced load failed for " + key, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a concurrent load of " + key, e);
+        }
+    }
+
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    // Detached before completing, so nobody joins a load that has already finished
+    private V load(K key, CompletableFuture<V> call, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, call);
+        call.complete(value);
+        return value;
+    }
+}
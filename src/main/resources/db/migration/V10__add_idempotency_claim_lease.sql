@@ -0,0 +1,17 @@
+-- Outcome and lease of each Idempotency-Key claim.
+-- A claim stays CLAIMED while its instance processes the payment. It becomes COMPLETED
+-- once the payment is stored, or FAILED when processing threw, possibly after the
+-- gateway was called. FAILED claims, and CLAIMED ones whose claimed_at is older than
+-- payment.idempotency.claim-lease (their instance died), are taken over by the next
+-- request with the key, which reuses the claim's payment_id. Existing rows become
+-- CLAIMED as of their creation, so they resolve the same way.
+
+ALTER TABLE payment_idempotency_keys ADD COLUMN IF NOT EXISTS status VARCHAR(16);
+
+ALTER TABLE payment_idempotency_keys ADD COLUMN IF NOT EXISTS claimed_at TIMESTAMP(6);
+
+UPDATE payment_idempotency_keys SET status = 'CLAIMED', claimed_at = created_at WHERE status IS NULL;
+
+ALTER TABLE payment_idempotency_keys ALTER COLUMN status SET NOT NULL;
+
+ALTER TABLE payment_idempotency_keys ALTER COLUMN claimed_at SET NOT NULL;
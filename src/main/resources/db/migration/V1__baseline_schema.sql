@@ -0,0 +1,31 @@
+-- Baseline schema for the payments service.
+-- Written to be idempotent so it also applies cleanly to databases whose schema was
+-- previously created by Hibernate (ddl-auto: update), where payments.id is an IDENTITY column.
+
+CREATE TABLE IF NOT EXISTS payments (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    payment_id      VARCHAR(255) NOT NULL UNIQUE,
+    order_id        VARCHAR(255) NOT NULL,
+    amount          FLOAT(53)    NOT NULL,
+    status          VARCHAR(255),
+    method          VARCHAR(255),
+    transaction_id  VARCHAR(255),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6)
+);
+
+-- Pooled sequence used by Hibernate (allocationSize = 50)
+CREATE SEQUENCE IF NOT EXISTS payments_seq START WITH 1 INCREMENT BY 50;
+
+-- Move the sequence past ids handed out by the old IDENTITY column or earlier pools
+SELECT setval('payments_seq',
+              GREATEST((SELECT COALESCE(MAX(id), 0) FROM payments), (SELECT last_value FROM payments_seq)) + 50,
+              false);
+
+CREATE TABLE IF NOT EXISTS payment_idempotency_keys (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    idempotency_key      VARCHAR(255) NOT NULL UNIQUE,
+    payment_id           VARCHAR(255) NOT NULL,
+    request_fingerprint  VARCHAR(64)  NOT NULL,
+    created_at           TIMESTAMP(6) NOT NULL
+);
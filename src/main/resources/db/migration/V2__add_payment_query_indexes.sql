@@ -0,0 +1,15 @@
+-- Indexes for the hot read paths:
+--   findByOrderId                      -> idx_payments_order_id
+--   findByStatus, status-filtered lists -> idx_payments_status_created_at
+--   keyset pagination on (created_at, id) -> idx_payments_created_at_id
+-- Built CONCURRENTLY so existing tables stay writable; Flyway runs this script
+-- outside a transaction because every statement in it is non-transactional.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_order_id
+    ON payments (order_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status_created_at
+    ON payments (status, created_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_created_at_id
+    ON payments (created_at, id);
@@ -0,0 +1,24 @@
+-- Transactional outbox for payment status changes.
+-- Rows are inserted in the same transaction as the payment write. The relay publishes
+-- them in id order and stamps published_seq, which gives every instance a gap-free,
+-- commit-ordered feed to tail for SSE subscribers.
+
+CREATE SEQUENCE IF NOT EXISTS payment_outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS payment_outbox_published_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS payment_outbox (
+    id             BIGINT       NOT NULL PRIMARY KEY,
+    payment_id     VARCHAR(255) NOT NULL,
+    order_id       VARCHAR(255) NOT NULL,
+    event_type     VARCHAR(64)  NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    published_at   TIMESTAMP(6),
+    published_seq  BIGINT
+);
+
+-- The relay only ever scans the unpublished tail
+CREATE INDEX IF NOT EXISTS idx_payment_outbox_unpublished ON payment_outbox (id) WHERE published_at IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payment_outbox_published_seq ON payment_outbox (published_seq);
@@ -0,0 +1,2 @@
+-- Optimistic locking for payments. Existing rows start at version 0.
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,23 @@
+-- Exact amounts: a BIGINT count of minor units plus the ISO 4217 currency code
+-- replaces the FLOAT amount. Existing rows were all taken in the configured default
+-- currency, so they convert by rounding amount * 10^exponent, with the currency's
+-- ISO 4217 exponent (the decimals java.util.Currency and Money use): 0 for JPY, KRW,
+-- ..., 3 for KWD, BHD, ..., 4 for CLF and UYW, and 2 otherwise.
+
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS amount_minor BIGINT;
+ALTER TABLE payments ADD COLUMN IF NOT EXISTS currency VARCHAR(3);
+
+UPDATE payments
+SET amount_minor = ROUND(amount::NUMERIC * POWER(10::NUMERIC, CASE
+        WHEN '${default_currency}' IN ('BIF', 'CLP', 'DJF', 'GNF', 'ISK', 'JPY', 'KMF', 'KRW', 'PYG',
+                                       'RWF', 'UGX', 'UYI', 'VND', 'VUV', 'XAF', 'XOF', 'XPF') THEN 0
+        WHEN '${default_currency}' IN ('BHD', 'IQD', 'JOD', 'KWD', 'LYD', 'OMR', 'TND') THEN 3
+        WHEN '${default_currency}' IN ('CLF', 'UYW') THEN 4
+        ELSE 2
+    END)),
+    currency     = '${default_currency}'
+WHERE amount_minor IS NULL;
+
+ALTER TABLE payments ALTER COLUMN amount_minor SET NOT NULL;
+ALTER TABLE payments ALTER COLUMN currency SET NOT NULL;
+ALTER TABLE payments DROP COLUMN amount;
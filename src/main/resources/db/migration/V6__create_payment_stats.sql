@@ -0,0 +1,15 @@
+-- Rollups of payment counts and exact totals, kept per minute, hour and day bucket of
+-- created_at. Instances add their in-memory deltas with upserts; stats reads only touch
+-- this table, never payments. The first instance to start on an empty table fills it
+-- from payments with one aggregate query.
+
+CREATE TABLE IF NOT EXISTS payment_stats (
+    granularity    VARCHAR(16)  NOT NULL,
+    bucket_start   TIMESTAMP(6) NOT NULL,
+    status         VARCHAR(255) NOT NULL,
+    method         VARCHAR(255) NOT NULL,
+    currency       VARCHAR(3)   NOT NULL,
+    payment_count  BIGINT       NOT NULL,
+    amount_minor   BIGINT       NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, status, method, currency)
+);
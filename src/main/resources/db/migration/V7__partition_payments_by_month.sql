@@ -0,0 +1,72 @@
+-- Range-partition payments by created_at month.
+-- Old months stop taking writes, so their indexes stay compact and vacuum only works on
+-- the current partitions. Once archival (V8) has emptied an old month, its partition is
+-- dropped whole instead of being deleted row by row.
+--
+-- Postgres requires the partition key in every unique index, so the primary key becomes
+-- (id, created_at) and payment_id gets a plain index; paymentIds are unique by
+-- construction (IdGenerator). created_at becomes NOT NULL as the partition key.
+
+-- Creates the partition for the month containing month_start if it is missing and
+-- returns its name. Called here and by PaymentPartitionMaintenance, which keeps
+-- payment.partitions.months-ahead future months ready. There is no default partition:
+-- creating a month would fail once a default partition held rows for it.
+CREATE OR REPLACE FUNCTION create_payment_partition(month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    lower_bound    DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'payments_p' || to_char(lower_bound, 'YYYYMM');
+BEGIN
+    -- Serializes instances creating the same month at the same time
+    PERFORM pg_advisory_xact_lock(hashtext('create_payment_partition'));
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, lower_bound, (lower_bound + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+
+CREATE TABLE payments (
+    id              BIGINT       NOT NULL,
+    payment_id      VARCHAR(255) NOT NULL,
+    order_id        VARCHAR(255) NOT NULL,
+    amount_minor    BIGINT       NOT NULL,
+    currency        VARCHAR(3)   NOT NULL,
+    status          VARCHAR(255),
+    method          VARCHAR(255),
+    transaction_id  VARCHAR(255),
+    version         BIGINT       NOT NULL DEFAULT 0,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6)
+) PARTITION BY RANGE (created_at);
+
+-- One partition per month from the oldest existing payment to three months ahead
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', COALESCE(
+        (SELECT MIN(COALESCE(created_at, updated_at)) FROM payments_unpartitioned), now()))::DATE;
+BEGIN
+    WHILE partition_month <= date_trunc('month', now() + INTERVAL '3 months')::DATE LOOP
+        PERFORM create_payment_partition(partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO payments (id, payment_id, order_id, amount_minor, currency, status, method,
+                      transaction_id, version, created_at, updated_at)
+SELECT id, payment_id, order_id, amount_minor, currency, status, method,
+       transaction_id, version, COALESCE(created_at, updated_at, now()), updated_at
+FROM payments_unpartitioned;
+
+DROP TABLE payments_unpartitioned;
+
+-- Indexes are declared once on the parent and created on every partition, current and future
+ALTER TABLE payments ADD PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_payments_payment_id ON payments (payment_id);
+
+CREATE INDEX idx_payments_order_id ON payments (order_id);
+
+CREATE INDEX idx_payments_status_created_at ON payments (status, created_at);
+
+CREATE INDEX idx_payments_created_at_id ON payments (created_at, id);
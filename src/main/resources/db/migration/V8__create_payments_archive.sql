@@ -0,0 +1,27 @@
+-- Archive for payments that reached a final status long ago.
+-- PaymentPartitionMaintenance moves rows here once they are older than the retention
+-- configured for their status (payment.archive.retention-days). Archived rows never
+-- change again, so the table is insert-only: no dead tuples, no update headroom needed,
+-- and vacuum only has to freeze it. Reads fall back to it when a payment is not in
+-- payments; only the lookups they use are indexed.
+
+CREATE TABLE IF NOT EXISTS payments_archive (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    payment_id      VARCHAR(255) NOT NULL,
+    order_id        VARCHAR(255) NOT NULL,
+    amount_minor    BIGINT       NOT NULL,
+    currency        VARCHAR(3)   NOT NULL,
+    status          VARCHAR(255),
+    method          VARCHAR(255),
+    transaction_id  VARCHAR(255),
+    version         BIGINT       NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    archived_at     TIMESTAMP(6) NOT NULL DEFAULT now()
+) WITH (fillfactor = 100);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payments_archive_payment_id ON payments_archive (payment_id);
+
+CREATE INDEX IF NOT EXISTS idx_payments_archive_order_id ON payments_archive (order_id);
+
+CREATE INDEX IF NOT EXISTS idx_payments_archive_created_at_id ON payments_archive (created_at, id);
@@ -0,0 +1,29 @@
+-- Database-level uniqueness of payment_id across payments and payments_archive.
+-- The partitioned payments table cannot carry a unique index on payment_id alone (V7),
+-- so every payment_id is also inserted into this small unpartitioned table. A trigger
+-- does it in the inserting transaction, whichever path writes the payment (JPA, the
+-- reactive repository or the journal drainer): a second payment with the same id fails
+-- with a unique violation and rolls back with it. Rows stay when a payment is archived,
+-- so an archived id cannot be reused either.
+
+CREATE TABLE IF NOT EXISTS payment_ids (
+    payment_id  VARCHAR(255) NOT NULL PRIMARY KEY
+);
+
+-- UNION ALL on purpose: an existing duplicate fails the migration instead of being hidden
+INSERT INTO payment_ids (payment_id)
+SELECT payment_id FROM payments
+UNION ALL
+SELECT payment_id FROM payments_archive;
+
+CREATE OR REPLACE FUNCTION register_payment_id() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO payment_ids (payment_id) VALUES (NEW.payment_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Declared on the parent, so it fires for rows inserted into any partition
+CREATE TRIGGER trg_payments_register_payment_id
+    AFTER INSERT ON payments
+    FOR EACH ROW EXECUTE FUNCTION register_payment_id();
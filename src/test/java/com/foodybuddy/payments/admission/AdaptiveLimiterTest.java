@@ -0,0 +1,169 @@
+package com.foodybuddy.payments.admission;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimiterTest {
+
+    private static final long NEVER_SLOW = 60_000;
+    private static final long ALWAYS_SLOW = 0;
+
+    @Test
+    void slowResponseCutsTheLimitOncePerRoundTrip() throws Exception {
+        AdaptiveLimiter limiter = limiter(10, 1, 20, 0, 1000, ALWAYS_SLOW);
+        Thread.sleep(1);
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+        Thread.sleep(1);
+
+        limiter.release(first);
+        assertEquals(9.0, limiter.getLimit(), 1e-9);
+        // Admitted before the cut: the same congestion event, not a new one
+        limiter.release(second);
+        assertEquals(9.0, limiter.getLimit(), 1e-9);
+
+        long third = limiter.acquire();
+        Thread.sleep(1);
+        limiter.release(third);
+        assertEquals(8.1, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void limitNeverFallsBelowMinLimit() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 20, 0, 1000, ALWAYS_SLOW);
+        Thread.sleep(1);
+        long admitted = limiter.acquire();
+        Thread.sleep(1);
+
+        limiter.release(admitted);
+
+        assertEquals(1.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void fastResponseGrowsTheLimitOnlyWhileItIsInUse() {
+        AdaptiveLimiter limiter = limiter(2, 1, 20, 0, 1000, NEVER_SLOW);
+        long first = limiter.acquire();
+        long second = limiter.acquire();
+
+        limiter.release(first);
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+        // One request in flight under a limit of 2: the limit was not what held traffic back
+        limiter.release(second);
+        assertEquals(2.5, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void limitNeverRisesAboveMaxLimit() {
+        AdaptiveLimiter limiter = limiter(3, 1, 3, 0, 1000, NEVER_SLOW);
+        long[] admitted = {limiter.acquire(), limiter.acquire(), limiter.acquire()};
+
+        limiter.release(admitted[0]);
+
+        assertEquals(3.0, limiter.getLimit(), 1e-9);
+    }
+
+    @Test
+    void queuedRequestsAreAdmittedInArrivalOrder() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 3, 10_000, NEVER_SLOW);
+        long held = limiter.acquire();
+        List<String> admissions = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<?>> waiters = new ArrayList<>();
+            for (String name : List.of("first", "second", "third")) {
+                waiters.add(executor.submit(() -> {
+                    long admittedAt = limiter.acquire();
+                    assertTrue(admittedAt >= 0, name + " was refused");
+                    synchronized (admissions) {
+                        admissions.add(name);
+                    }
+                    limiter.release(admittedAt);
+                }));
+                awaitQueued(limiter, waiters.size());
+            }
+
+            limiter.release(held);
+            for (Future<?> waiter : waiters) {
+                waiter.get(5, TimeUnit.SECONDS);
+            }
+
+            assertEquals(List.of("first", "second", "third"), admissions);
+            assertEquals(0, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void fullQueueRefusesWithoutWaiting() throws Exception {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 2, 10_000, NEVER_SLOW);
+        long held = limiter.acquire();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Long>> waiters = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                waiters.add(executor.submit(limiter::acquire));
+            }
+            awaitQueued(limiter, 2);
+
+            long start = System.nanoTime();
+            assertEquals(-1, limiter.acquire());
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+            limiter.release(held);
+            for (Future<Long> waiter : waiters) {
+                limiter.release(waiter.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(0, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void queuedRequestIsRefusedAfterMaxWait() {
+        AdaptiveLimiter limiter = limiter(1, 1, 1, 1, 50, NEVER_SLOW);
+        long held = limiter.acquire();
+
+        long start = System.nanoTime();
+        assertEquals(-1, limiter.acquire());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        assertEquals(0, limiter.getQueued());
+
+        limiter.release(held);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void retryAfterIsMaxWaitRoundedUpToSeconds() {
+        assertEquals(1, limiter(1, 1, 1, 1, 0, NEVER_SLOW).getRetryAfterSeconds());
+        assertEquals(1, limiter(1, 1, 1, 1, 50, NEVER_SLOW).getRetryAfterSeconds());
+        assertEquals(1, limiter(1, 1, 1, 1, 1000, NEVER_SLOW).getRetryAfterSeconds());
+        assertEquals(2, limiter(1, 1, 1, 1, 1001, NEVER_SLOW).getRetryAfterSeconds());
+    }
+
+    private static AdaptiveLimiter limiter(int initialLimit, int minLimit, int maxLimit, int maxQueued,
+                                           long maxWait, long latencyTarget) {
+        return new AdaptiveLimiter(new PaymentConfig.Admission.Limit(
+            initialLimit, minLimit, maxLimit, maxQueued, maxWait, latencyTarget));
+    }
+
+    private static void awaitQueued(AdaptiveLimiter limiter, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued() < expected) {
+            assertTrue(System.nanoTime() < deadline, "requests did not queue");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.foodybuddy.payments.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.logging.LoggingInitializationContext;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Request latency with synchronous logging vs the AsyncAppender setup of logback-spring.xml
+ *
+ * Each simulated request writes six INFO lines with paymentId / orderId in the MDC, as
+ * processPayment did before logging was trimmed, from 8 threads at once. The target
+ * appender takes 100 us per event, standing in for a console that cannot keep up.
+ * Synchronous appending makes every request wait for it. The async path is the shipped
+ * one: logback-spring.xml is loaded with the logging.async.queue-size of application.yml,
+ * and only the console behind ASYNC_CONSOLE is swapped for the slow appender.
+ */
+class AsyncLoggingLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 100;
+    private static final int LINES_PER_REQUEST = 6;
+    private static final long APPEND_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final LoggingSystem loggingSystem = LoggingSystem.get(getClass().getClassLoader());
+    private LoggerContext loggerContext;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+            .forEach(environment.getPropertySources()::addLast);
+        loggingSystem.beforeInitialize();
+        loggingSystem.initialize(new LoggingInitializationContext(environment), "classpath:logback-spring.xml", null);
+        loggerContext = (LoggerContext) LoggerFactory.getILoggerFactory();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loggingSystem.cleanUp();
+        loggerContext.reset();
+    }
+
+    @Test
+    void asyncAppenderKeepsSlowOutputOffTheRequestPath() throws Exception {
+        SlowAppender syncTarget = new SlowAppender();
+        Logger syncLogger = loggerContext.getLogger("loadtest.sync");
+        syncLogger.setAdditive(false);
+        syncTarget.setContext(loggerContext);
+        syncTarget.start();
+        syncLogger.addAppender(syncTarget);
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        AsyncAppender async = (AsyncAppender) root.getAppender("ASYNC_CONSOLE");
+        assertEquals(8192, async.getQueueSize(), "queue size of logging.async.queue-size");
+        assertTrue(async.isNeverBlock());
+        // Only the console path is measured
+        root.detachAppender("ASYNC_FILE");
+        SlowAppender asyncTarget = new SlowAppender();
+        asyncTarget.setContext(loggerContext);
+        asyncTarget.start();
+        async.detachAppender("CONSOLE");
+        async.addAppender(asyncTarget);
+        Logger asyncLogger = loggerContext.getLogger("loadtest.async");
+
+        // Warm up both paths before measuring
+        runRequests(syncLogger, 10);
+        runRequests(asyncLogger, 10);
+        long[] syncLatencies = runRequests(syncLogger, REQUESTS_PER_THREAD);
+        long[] asyncLatencies = runRequests(asyncLogger, REQUESTS_PER_THREAD);
+
+        long syncP99 = percentile(syncLatencies, 0.99);
+        long asyncP99 = percentile(asyncLatencies, 0.99);
+        assertEquals((long) THREADS * (10 + REQUESTS_PER_THREAD) * LINES_PER_REQUEST, syncTarget.appended.get());
+        assertTrue(asyncP99 * 5 < syncP99,
+            "async p99 " + asyncP99 / 1000 + " us (p50 " + percentile(asyncLatencies, 0.5) / 1000 
+            + " us) is not well below sync p99 " + syncP99 / 1000 + " us (p50 " 
+            + percentile(syncLatencies, 0.5) / 1000 + " us)");
+    }
+
+    private static long[] runRequests(Logger logger, int requestsPerThread) throws InterruptedException {
+        long[] latencies = new long[THREADS * requestsPerThread];
+        AtomicLong next = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int r = 0; r < requestsPerThread; r++) {
+                    int request = (int) next.getAndIncrement();
+                    long begin = System.nanoTime();
+                    logRequest(logger, request);
+                    latencies[request] = System.nanoTime() - begin;
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return latencies;
+    }
+
+    private static void logRequest(Logger logger, int request) {
+        MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "PAY-" + request);
+        MDC.put(LoggingContextInterceptor.MDC_ORDER_ID, "ORDER-" + request);
+        try {
+            for (int line = 0; line < LINES_PER_REQUEST; line++) {
+                logger.info("Processing payment - Step: {}, Amount: {}", line, 25.98);
+            }
+        } finally {
+            MDC.remove(LoggingContextInterceptor.MDC_PAYMENT_ID);
+            MDC.remove(LoggingContextInterceptor.MDC_ORDER_ID);
+        }
+    }
+
+    private static long percentile(long[] latencies, double quantile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    /**
+     * Formats each event and then stalls, like a console that cannot keep up.
+     * AppenderBase serializes calls, as the console appender's lock does.
+     */
+    private static final class SlowAppender extends AppenderBase<ILoggingEvent> {
+
+        private final AtomicLong appended = new AtomicLong();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.getFormattedMessage();
+            event.getMDCPropertyMap();
+            LockSupport.parkNanos(APPEND_NANOS);
+            appended.incrementAndGet();
+        }
+    }
+}
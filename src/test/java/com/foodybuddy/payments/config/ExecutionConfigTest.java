@@ -0,0 +1,166 @@
+package com.foodybuddy.payments.config;
+
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.gateway.PaymentGatewayRegistry;
+import com.foodybuddy.payments.gateway.SimulatedPaymentGateway;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import com.foodybuddy.payments.service.ResilientGatewayClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 1k async completions through paymentGatewayExecutor, on platform and virtual threads.
+ * The completions are handed off from a single "gateway" thread, as the gateway's
+ * completing thread does; none may run on it and none may be dropped. Also compares the
+ * throughput of 1k concurrent synchronous requests on platform and virtual threads.
+ */
+class ExecutionConfigTest {
+
+    private static final int REQUESTS = 1000;
+    private static final long COMMIT_MILLIS = 5;
+    private static final long GATEWAY_DELAY_MILLIS = 2000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Test
+    void platformThreadsCompleteEveryResultOffTheGatewayThread() throws Exception {
+        runCompletions(false);
+    }
+
+    @Test
+    void virtualThreadsCompleteEveryResultOffTheGatewayThread() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need JDK 21+");
+        runCompletions(true);
+    }
+
+    /**
+     * 1k concurrent synchronous requests, each blocked on a gateway answering after the
+     * simulated 2 s delay. Platform request threads are capped like Tomcat's (200), so they
+     * get through the requests 200 at a time; on virtual threads all 1k wait at once. The
+     * gateway permits are raised to the concurrency here, otherwise they cap both modes.
+     */
+    @Test
+    void virtualThreadsSustainOneThousandConcurrentRequests() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need JDK 21+");
+        PaymentConfig paymentConfig = new PaymentConfig();
+        paymentConfig.getSimulation().setProcessingDelay(GATEWAY_DELAY_MILLIS);
+        paymentConfig.getExecution().setMaxConcurrentGatewayCalls(REQUESTS);
+        paymentConfig.getExecution().setGatewayPermitWait(60000);
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(paymentConfig);
+        ResilientGatewayClient client = new ResilientGatewayClient(new PaymentGatewayRegistry(List.of(gateway)),
+            paymentConfig, new PaymentMetrics(new SimpleMeterRegistry()));
+
+        ThreadPoolTaskExecutor platformThreads = new ThreadPoolTaskExecutor();
+        platformThreads.setCorePoolSize(TOMCAT_MAX_THREADS);
+        platformThreads.setMaxPoolSize(TOMCAT_MAX_THREADS);
+        platformThreads.initialize();
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("request-vt-");
+        virtualThreads.setVirtualThreads(true);
+        try {
+            long platformMillis = runRequests(platformThreads, client);
+            long virtualMillis = runRequests(virtualThreads, client);
+
+            String timings = "platform " + platformMillis + "ms, virtual " + virtualMillis + "ms";
+            // 1000 / 200 = 5 rounds of the gateway delay on platform threads, one on virtual
+            assertTrue(platformMillis >= 4 * GATEWAY_DELAY_MILLIS, timings);
+            assertTrue(virtualMillis < 2 * GATEWAY_DELAY_MILLIS, timings);
+            assertTrue(virtualMillis * 3 < platformMillis, timings);
+        } finally {
+            platformThreads.shutdown();
+            gateway.shutdown();
+        }
+    }
+
+    // Wall-clock time until every request has its gateway answer
+    private static long runRequests(Executor requestThreads, ResilientGatewayClient client) throws Exception {
+        CountDownLatch answered = new CountDownLatch(REQUESTS);
+        AtomicInteger failures = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            Payment payment = new Payment("pay-" + i, "order-" + i, Money.of(new BigDecimal("10.00"), "USD"),
+                PaymentStatus.PROCESSING, PaymentMethod.CREDIT_CARD);
+            requestThreads.execute(() -> {
+                try {
+                    client.charge(payment).get(30, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    answered.countDown();
+                }
+            });
+        }
+        assertTrue(answered.await(60, TimeUnit.SECONDS), "not every request was answered");
+        assertEquals(0, failures.get());
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private void runCompletions(boolean virtualThreads) throws Exception {
+        PaymentConfig paymentConfig = new PaymentConfig();
+        paymentConfig.getExecution().setVirtualThreads(virtualThreads);
+        paymentConfig.getExecution().setGatewayPoolSize(8);
+        Executor executor = new ExecutionConfig().paymentGatewayExecutor(paymentConfig);
+        if (executor instanceof InitializingBean initializingBean) {
+            initializingBean.afterPropertiesSet();
+        }
+
+        Set<Thread> completingThreads = ConcurrentHashMap.newKeySet();
+        CountDownLatch completed = new CountDownLatch(REQUESTS);
+        AtomicLong submitNanos = new AtomicLong();
+        Thread gatewayThread = new Thread(() -> {
+            long start = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                CompletableFuture.completedFuture(i).whenCompleteAsync((result, error) -> {
+                    completingThreads.add(Thread.currentThread());
+                    sleep(COMMIT_MILLIS);
+                    completed.countDown();
+                }, executor);
+            }
+            submitNanos.set(System.nanoTime() - start);
+        }, "gateway-completer");
+
+        gatewayThread.start();
+        gatewayThread.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(gatewayThread.isAlive(), "handing off results blocked the gateway thread");
+        assertTrue(completed.await(30, TimeUnit.SECONDS), "not every result was stored");
+
+        assertFalse(completingThreads.contains(gatewayThread), "a result was stored on the gateway thread");
+        assertEquals(0, completed.getCount());
+        // Handing off 1k results must take a fraction of running them
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(submitNanos.get()) < REQUESTS * COMMIT_MILLIS / 8,
+            "submitting took " + TimeUnit.NANOSECONDS.toMillis(submitNanos.get()) + "ms");
+
+        if (executor instanceof DisposableBean disposableBean) {
+            disposableBean.destroy();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
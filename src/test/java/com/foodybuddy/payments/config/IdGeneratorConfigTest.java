@@ -0,0 +1,27 @@
+package com.foodybuddy.payments.config;
+
+import com.foodybuddy.payments.id.IdGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdGeneratorConfigTest {
+
+    @Test
+    void failsWhenNodeIdIsUnset() {
+        PaymentConfig paymentConfig = new PaymentConfig();
+
+        assertThrows(IllegalStateException.class, () -> new IdGeneratorConfig().idGenerator(paymentConfig));
+    }
+
+    @Test
+    void usesTheConfiguredNodeId() {
+        PaymentConfig paymentConfig = new PaymentConfig();
+        paymentConfig.getIdentifiers().setNodeId(5);
+
+        IdGenerator idGenerator = new IdGeneratorConfig().idGenerator(paymentConfig);
+
+        assertEquals(13, idGenerator.nextPaymentId().length());
+    }
+}
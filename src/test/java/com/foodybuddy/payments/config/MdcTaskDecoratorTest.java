@@ -0,0 +1,86 @@
+package com.foodybuddy.payments.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MdcTaskDecoratorTest {
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+        worker.shutdownNow();
+    }
+
+    @Test
+    void decoratedTaskRunsWithTheSubmittersContext() throws Exception {
+        MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "pay-1");
+        MDC.put(LoggingContextInterceptor.MDC_ORDER_ID, "order-1");
+        MDC.put(LoggingContextInterceptor.MDC_SAMPLED, "false");
+        AtomicReference<Map<String, String>> seen = new AtomicReference<>();
+
+        Runnable task = new MdcTaskDecorator().decorate(() -> seen.set(MDC.getCopyOfContextMap()));
+        MDC.clear();
+        worker.submit(task).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Map.of(LoggingContextInterceptor.MDC_PAYMENT_ID, "pay-1",
+            LoggingContextInterceptor.MDC_ORDER_ID, "order-1",
+            LoggingContextInterceptor.MDC_SAMPLED, "false"), seen.get());
+    }
+
+    @Test
+    void workerContextIsRestoredAfterTheTask() throws Exception {
+        worker.submit(() -> MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "worker")).get(5, TimeUnit.SECONDS);
+        MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "pay-1");
+
+        worker.submit(new MdcTaskDecorator().decorate(() -> { })).get(5, TimeUnit.SECONDS);
+
+        assertEquals("worker", worker.submit(() -> MDC.get(LoggingContextInterceptor.MDC_PAYMENT_ID))
+            .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void emptyContextIsNotInheritedFromAnEarlierTask() throws Exception {
+        MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "pay-1");
+        worker.submit(new MdcTaskDecorator().decorate(() -> { })).get(5, TimeUnit.SECONDS);
+        MDC.clear();
+        AtomicReference<String> seen = new AtomicReference<>("unset");
+
+        worker.submit(new MdcTaskDecorator().decorate(
+            () -> seen.set(MDC.get(LoggingContextInterceptor.MDC_PAYMENT_ID)))).get(5, TimeUnit.SECONDS);
+
+        assertNull(seen.get());
+    }
+
+    @Test
+    void capturingExecutorUsesTheContextAtCaptureTime() throws Exception {
+        MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "pay-1");
+        CompletableFuture<String> gatewayCall = new CompletableFuture<>();
+        CompletableFuture<String> completion = gatewayCall.thenApplyAsync(
+            result -> result + ":" + MDC.get(LoggingContextInterceptor.MDC_PAYMENT_ID),
+            MdcTaskDecorator.capturing(worker));
+        MDC.clear();
+
+        // Completed from a thread with another context, as the gateway's thread would
+        Thread gatewayThread = new Thread(() -> {
+            MDC.put(LoggingContextInterceptor.MDC_PAYMENT_ID, "other");
+            gatewayCall.complete("APPROVED");
+        });
+        gatewayThread.start();
+        gatewayThread.join();
+
+        assertEquals("APPROVED:pay-1", completion.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,87 @@
+package com.foodybuddy.payments.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the reactive profile (WebFlux and R2DBC) against Postgres and takes one payment
+ * through process, get and refund over HTTP
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "payment.identifiers.node-id=0",
+    "payment.simulation.processing-delay=10",
+    "payment.processing.success-rate=1.0"})
+@ActiveProfiles("reactive")
+@Testcontainers(disabledWithoutDocker = true)
+class ReactiveProfileSmokeTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&currentSchema=payments");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+            + postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT) + "/" + postgres.getDatabaseName()
+            + "?schema=payments");
+        registry.add("spring.r2dbc.username", postgres::getUsername);
+        registry.add("spring.r2dbc.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void processGetAndRefund() {
+        JsonNode processed = webTestClient.post().uri("/api/payments/process")
+            .bodyValue(new ProcessPaymentRequest("order-reactive", new BigDecimal("25.98"), PaymentMethod.CREDIT_CARD))
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.CREATED)
+            .expectBody(JsonNode.class).returnResult().getResponseBody();
+        assertNotNull(processed);
+        assertEquals("COMPLETED", processed.path("status").asText());
+        // Ids come from PooledSequence and must be positive
+        assertTrue(processed.path("id").asLong() > 0, "id " + processed.path("id"));
+        String paymentId = processed.path("paymentId").asText();
+
+        webTestClient.get().uri("/api/payments/{paymentId}", paymentId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.orderId").isEqualTo("order-reactive")
+            .jsonPath("$.status").isEqualTo("COMPLETED");
+
+        webTestClient.post().uri("/api/payments/{paymentId}/refund", paymentId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.status").isEqualTo("REFUNDED");
+
+        webTestClient.get().uri("/api/payments/{paymentId}", paymentId)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody().jsonPath("$.status").isEqualTo("REFUNDED");
+        webTestClient.post().uri("/api/payments/{paymentId}/refund", paymentId)
+            .exchange()
+            .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,108 @@
+package com.foodybuddy.payments.gateway;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GatewayCircuitBreakerTest {
+
+    private PaymentConfig.CircuitBreaker config;
+
+    @BeforeEach
+    void setUp() {
+        config = new PaymentConfig.CircuitBreaker();
+        config.setFailureRateThreshold(0.5);
+        config.setSlidingWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setOpenDuration(60000);
+        config.setHalfOpenCalls(2);
+    }
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+
+        assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRejects() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+
+        record(breaker, false, true, false, true);
+
+        assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void declinesCountAsSuccessesAndKeepItClosed() {
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+
+        record(breaker, true, false, false, false, true, false, false);
+
+        assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulTrialCalls() {
+        config.setOpenDuration(0);
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+        record(breaker, true, true, true, true);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(GatewayCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "more trial calls than halfOpenCalls");
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(GatewayCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void halfOpenReopensOnAFailedTrialCall() {
+        config.setOpenDuration(0);
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+        record(breaker, true, true, true, true);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(GatewayCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void releaseGivesBackAnUnusedTrialPermit() {
+        config.setOpenDuration(0);
+        GatewayCircuitBreaker breaker = new GatewayCircuitBreaker("test", config);
+        record(breaker, true, true, true, true);
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        breaker.release();
+
+        assertTrue(breaker.tryAcquire(), "a released trial permit was not handed out again");
+        assertFalse(breaker.tryAcquire());
+    }
+
+    private static void record(GatewayCircuitBreaker breaker, boolean... failures) {
+        for (boolean failure : failures) {
+            assertTrue(breaker.tryAcquire());
+            if (failure) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.foodybuddy.payments.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeIdGeneratorTest {
+
+    // Every core draws at once, and at least two threads so both nodes run in nodesNeverCollide
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int TOTAL_IDS = 10_000_000;
+    private static final int IDS_PER_THREAD = (TOTAL_IDS + THREADS - 1) / THREADS;
+
+    @Test
+    void concurrentIdsAreUniqueAndOrderedPerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+
+        long[][] generated = generateConcurrently(List.of(generator), THREADS);
+
+        for (long[] ids : generated) {
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "ids went backwards within one thread");
+            }
+        }
+        assertNoDuplicates(generated);
+    }
+
+    @Test
+    void nodesNeverCollide() throws Exception {
+        List<SnowflakeIdGenerator> nodes = List.of(new SnowflakeIdGenerator(1), new SnowflakeIdGenerator(2));
+
+        assertNoDuplicates(generateConcurrently(nodes, THREADS));
+    }
+
+    @Test
+    void nodeIdIsEncodedInEveryId() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(SnowflakeIdGenerator.MAX_NODE_ID, (generator.nextId() >>> 12) & SnowflakeIdGenerator.MAX_NODE_ID);
+        }
+    }
+
+    @Test
+    void stringOrderFollowsGenerationOrder() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3);
+        String previous = generator.nextPaymentId();
+
+        // More than one millisecond's 4096 sequence values, so the sequence carries over
+        for (int i = 0; i < 20_000; i++) {
+            String next = generator.nextPaymentId();
+            assertEquals(13, next.length());
+            assertTrue(next.compareTo(previous) > 0, next + " does not sort after " + previous);
+            previous = next;
+        }
+        assertTrue(generator.nextTransactionId().startsWith("TXN_"));
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE_ID + 1));
+    }
+
+    // Each thread draws from the generators in turn; returns one array of ids per thread
+    private static long[][] generateConcurrently(List<SnowflakeIdGenerator> generators, int threads) throws Exception {
+        long[][] generated = new long[threads][IDS_PER_THREAD];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] ids = generated[t];
+            SnowflakeIdGenerator generator = generators.get(t % generators.size());
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return generated;
+    }
+
+    private static void assertNoDuplicates(long[][] generated) {
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        for (int t = 0; t < THREADS; t++) {
+            System.arraycopy(generated[t], 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+        }
+        assertTrue(all.length >= TOTAL_IDS);
+        Arrays.parallelSort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertTrue(all[i] != all[i - 1], "duplicate id " + all[i]);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.foodybuddy.payments.journal;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentResponse;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.service.PaymentMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reopens a journal directory the way a restarted instance does, after damaging it the way
+ * a crash can: every acknowledged append must come back exactly once, in order, and
+ * nothing that was never acknowledged may come back.
+ */
+class PaymentJournalRecoveryTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int PAGE_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void acknowledgedPaymentsSurviveRestart() {
+        PaymentJournal journal = open(SEGMENT_SIZE);
+        appendRange(journal, 1, 50);
+
+        PaymentJournal restarted = open(SEGMENT_SIZE);
+
+        assertEquals(ids(1, 50), undrainedIds(restarted));
+        assertNotNull(restarted.pending("PAY-50"));
+        assertEquals(List.of("PAY-50"), restarted.pendingForOrder("ORDER-50").stream()
+                .map(PaymentResponse::getPaymentId).toList());
+    }
+
+    @Test
+    void tornTailIsDroppedAndNewAppendsFollowTheAcknowledgedOnes() throws IOException {
+        PaymentJournal journal = open(SEGMENT_SIZE);
+        appendRange(journal, 1, 3);
+        Path segment = onlySegment();
+        int end = recordOffsets(segment).get(3);
+        // A fourth record whose length made it to disk but whose payload did not
+        ByteBuffer torn = ByteBuffer.allocate(JournalSegment.HEADER_SIZE + 1)
+                .putInt(40).putInt(123).putLong(4).put((byte) 7).flip();
+        write(segment, end, torn);
+
+        PaymentJournal restarted = open(SEGMENT_SIZE);
+        assertEquals(ids(1, 3), undrainedIds(restarted));
+        assertNull(restarted.pending("PAY-4"));
+        appendRange(restarted, 4, 5);
+
+        assertEquals(ids(1, 5), undrainedIds(open(SEGMENT_SIZE)));
+    }
+
+    @Test
+    void recordsBehindALostPageAreNotResurrected() throws IOException {
+        PaymentJournal journal = open(SEGMENT_SIZE);
+        appendRange(journal, 1, 200);
+        Path segment = onlySegment();
+        List<Integer> offsets = recordOffsets(segment);
+        // The crash kept the second page from reaching the disk; the pages after it did
+        write(segment, PAGE_SIZE, ByteBuffer.allocate(PAGE_SIZE));
+        assertTrue(offsets.get(200) > 2 * PAGE_SIZE, "records must continue past the lost page");
+        int intact = 0;
+        while (offsets.get(intact + 1) <= PAGE_SIZE) {
+            intact++;
+        }
+
+        PaymentJournal restarted = open(SEGMENT_SIZE);
+        assertEquals(ids(1, intact), undrainedIds(restarted));
+        appendRange(restarted, 1001, 1002);
+
+        List<String> expected = ids(1, intact);
+        expected.addAll(ids(1001, 1002));
+        assertEquals(expected, undrainedIds(open(SEGMENT_SIZE)));
+    }
+
+    @Test
+    void drainedPaymentsAreNotReplayed() throws IOException {
+        PaymentJournal journal = open(SEGMENT_SIZE);
+        appendRange(journal, 1, 10);
+        journal.drained(journal.nextBatch(4));
+        // A checkpoint write the crash cut short before its rename
+        Files.write(directory.resolve("checkpoint.next"), new byte[] {0, 0, 0});
+
+        PaymentJournal restarted = open(SEGMENT_SIZE);
+
+        assertEquals(ids(5, 10), undrainedIds(restarted));
+        assertNull(restarted.pending("PAY-4"));
+        assertTrue(restarted.pendingForOrder("ORDER-4").isEmpty());
+        assertEquals(1, restarted.pendingForOrder("ORDER-5").size());
+    }
+
+    @Test
+    void drainedSegmentsAreDeletedAndTheRestRecovered() throws IOException {
+        PaymentJournal journal = open(1024);
+        appendRange(journal, 1, 100);
+        int segmentsBefore = segments().size();
+        assertTrue(segmentsBefore > 2, "appends must roll over into several segments");
+        journal.drained(journal.nextBatch(60));
+        assertTrue(segments().size() < segmentsBefore, "drained segments must be deleted");
+
+        PaymentJournal restarted = open(1024);
+
+        assertEquals(ids(61, 100), undrainedIds(restarted));
+    }
+
+    private PaymentJournal open(int segmentSize) {
+        PaymentConfig paymentConfig = new PaymentConfig();
+        paymentConfig.getJournal().setEnabled(true);
+        paymentConfig.getJournal().setDirectory(directory.toString());
+        paymentConfig.getJournal().setSegmentSize(segmentSize);
+        return new PaymentJournal(paymentConfig, new PaymentMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static void appendRange(PaymentJournal journal, int first, int last) {
+        for (int i = first; i <= last; i++) {
+            journal.append(new Payment("PAY-" + i, "ORDER-" + i, Money.ofMinor(1000 + i, "USD"),
+                    PaymentStatus.COMPLETED, PaymentMethod.CREDIT_CARD));
+        }
+    }
+
+    private static List<String> ids(int first, int last) {
+        List<String> ids = new ArrayList<>();
+        for (int i = first; i <= last; i++) {
+            ids.add("PAY-" + i);
+        }
+        return ids;
+    }
+
+    private static List<String> undrainedIds(PaymentJournal journal) {
+        List<String> ids = new ArrayList<>();
+        for (JournalEntry entry : journal.nextBatch(Integer.MAX_VALUE)) {
+            ids.add(entry.getPaymentId());
+        }
+        return ids;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private Path onlySegment() throws IOException {
+        List<Path> segments = segments();
+        assertEquals(1, segments.size());
+        return segments.get(0);
+    }
+
+    // Start offset of each record, followed by the offset just past the last one
+    private static List<Integer> recordOffsets(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        List<Integer> offsets = new ArrayList<>();
+        int position = 0;
+        while (buffer.getInt(position) > 0) {
+            offsets.add(position);
+            position += JournalSegment.HEADER_SIZE + buffer.getInt(position);
+        }
+        offsets.add(position);
+        return offsets;
+    }
+
+    private static void write(Path segment, long position, ByteBuffer bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(bytes, position);
+            channel.force(false);
+        }
+    }
+}
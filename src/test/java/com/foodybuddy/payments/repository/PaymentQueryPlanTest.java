@@ -0,0 +1,168 @@
+package com.foodybuddy.payments.repository;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.PaymentCursor;
+import com.foodybuddy.payments.dto.PaymentSearchCriteria;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans and latency of the hot read queries on a payments table seeded with 5M rows
+ * spread over the monthly partitions. Each query must be answered from the partitions'
+ * copies of its V7 index, never by scanning a partition, and fast enough to serve a
+ * request. One payment in 1000 is PROCESSING, so listing those is a selective query, as
+ * it is in production.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "payment.identifiers.node-id=0")
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentQueryPlanTest {
+
+    private static final int SEEDED_ROWS = 5_000_000;
+    private static final int RUNS = 20;
+    private static final long MAX_MEDIAN_MILLIS = 100;
+    private static boolean seeded;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&currentSchema=payments");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PaymentConfig paymentConfig;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        // payment_ids only guards uniqueness of new payments; skipping it keeps seeding fast
+        jdbcTemplate.execute("ALTER TABLE payments DISABLE TRIGGER trg_payments_register_payment_id");
+        jdbcTemplate.update("INSERT INTO payments (id, payment_id, order_id, amount_minor, currency, status, method, "
+            + "transaction_id, version, created_at, updated_at) "
+            + "SELECT i, 'PAY-' || i, 'ORDER-' || (i / 2), 1000 + i % 5000, 'USD', "
+            + "CASE WHEN i % 1000 = 0 THEN 'PROCESSING' WHEN i % 10 = 0 THEN 'FAILED' "
+            + "WHEN i % 25 = 0 THEN 'REFUNDED' ELSE 'COMPLETED' END, "
+            + "'CREDIT_CARD', 'TXN-' || i, 0, created_at, created_at "
+            + "FROM generate_series(1, ?) AS i, "
+            // About 58 days from the start of this month: the partitions V7 created ahead
+            + "LATERAL (SELECT date_trunc('month', now()) + i * INTERVAL '1 second' AS created_at) t",
+            SEEDED_ROWS);
+        jdbcTemplate.execute("ALTER TABLE payments ENABLE TRIGGER trg_payments_register_payment_id");
+        jdbcTemplate.execute("ANALYZE payments");
+        seeded = true;
+    }
+
+    @Test
+    void findByOrderIdUsesTheOrderIndex() {
+        assertUsesIndex("idx_payments_order_id",
+            "SELECT * FROM payments WHERE order_id = :orderId",
+            new MapSqlParameterSource("orderId", "ORDER-1234567"));
+    }
+
+    @Test
+    void findByStatusUsesTheStatusIndex() {
+        assertUsesIndex("idx_payments_status_created_at",
+            "SELECT * FROM payments WHERE status = :status",
+            new MapSqlParameterSource("status", PaymentStatus.PROCESSING.name()));
+    }
+
+    @Test
+    void keysetPageUsesTheCreatedAtIndex() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        PaymentCursor cursor = new PaymentCursor(
+            jdbcTemplate.queryForObject("SELECT created_at FROM payments WHERE id = 2500000", LocalDateTime.class),
+            2_500_000L);
+        RecordingJdbcTemplate recording = new RecordingJdbcTemplate(dataSource);
+        new PaymentQueryRepository(recording, dataSource, paymentConfig).findPage(criteria, cursor, 51);
+
+        assertUsesIndex("idx_payments_created_at_id", recording.sql, recording.params);
+    }
+
+    @Test
+    void statusFilteredKeysetPageUsesTheStatusIndex() {
+        PaymentSearchCriteria criteria = new PaymentSearchCriteria();
+        criteria.setStatus(PaymentStatus.PROCESSING);
+        RecordingJdbcTemplate recording = new RecordingJdbcTemplate(dataSource);
+        new PaymentQueryRepository(recording, dataSource, paymentConfig).findPage(criteria, null, 51);
+
+        assertUsesIndex("idx_payments_status_created_at", recording.sql, recording.params);
+    }
+
+    private void assertUsesIndex(String index, String sql, SqlParameterSource params) {
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbcTemplate);
+        String plan = String.join("\n", named.queryForList("EXPLAIN " + sql, params, String.class));
+        // Partitions carry their own copies of the index declared on payments
+        List<String> partitionIndexes = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = ?::regclass", String.class, index);
+
+        assertFalse(partitionIndexes.isEmpty(), index + " has no partition indexes");
+        assertTrue(partitionIndexes.stream().anyMatch(plan::contains), index + " not used:\n" + plan);
+        assertFalse(plan.contains("Seq Scan on payments_p"), "partition scanned:\n" + plan);
+
+        long[] millis = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            named.queryForList(sql, params);
+            millis[run] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        }
+        Arrays.sort(millis);
+        assertTrue(millis[RUNS / 2] < MAX_MEDIAN_MILLIS,
+            "median " + millis[RUNS / 2] + "ms, max " + millis[RUNS - 1] + "ms:\n" + plan);
+    }
+
+    /**
+     * Keeps the SQL and parameters of the last query, so the repository's own page query
+     * is the one explained
+     */
+    private static final class RecordingJdbcTemplate extends NamedParameterJdbcTemplate {
+
+        private String sql;
+        private SqlParameterSource params;
+
+        RecordingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public <T> List<T> query(String sql, SqlParameterSource params, RowMapper<T> rowMapper) {
+            this.sql = sql;
+            this.params = params;
+            return super.query(sql, params, rowMapper);
+        }
+    }
+}
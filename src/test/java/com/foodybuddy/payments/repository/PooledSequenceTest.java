@@ -0,0 +1,99 @@
+package com.foodybuddy.payments.repository;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * PooledSequence against a fake payments_seq (START WITH 1 INCREMENT BY 50, as in V1):
+ * the ids must be the ones Hibernate's pooled optimizer hands out from the same sequence
+ */
+class PooledSequenceTest {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private long lastValue;
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lastValue = 1 - ALLOCATION_SIZE;
+        databaseClient = mock(DatabaseClient.class);
+        DatabaseClient.GenericExecuteSpec nextval = mock(DatabaseClient.GenericExecuteSpec.class);
+        RowsFetchSpec<Long> row = mock(RowsFetchSpec.class);
+        when(databaseClient.sql("SELECT nextval('payments_seq')")).thenReturn(nextval);
+        when(nextval.map(any(Function.class))).thenReturn(row);
+        when(row.one()).thenAnswer(invocation -> Mono.fromSupplier(this::nextval));
+    }
+
+    @Test
+    void freshSequenceStartsAtOne() {
+        PooledSequence sequence = new PooledSequence(databaseClient, "payments_seq", ALLOCATION_SIZE);
+
+        assertEquals(range(1, 51), take(sequence, 51));
+        assertEquals(range(52, 101), take(sequence, 50));
+    }
+
+    @Test
+    void matchesHibernatePooledOptimizer() {
+        PooledSequence sequence = new PooledSequence(databaseClient, "payments_seq", ALLOCATION_SIZE);
+        List<Long> reactive = take(sequence, 500);
+
+        lastValue = 1 - ALLOCATION_SIZE;
+        PooledOptimizer optimizer = new PooledOptimizer(Long.class, ALLOCATION_SIZE);
+        AccessCallback callback = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class).initialize(nextval());
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+        List<Long> hibernate = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            hibernate.add((Long) optimizer.generate(callback));
+        }
+
+        assertEquals(hibernate, reactive);
+    }
+
+    private long nextval() {
+        lastValue += ALLOCATION_SIZE;
+        return lastValue;
+    }
+
+    private static List<Long> take(PooledSequence sequence, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(sequence.next().block());
+        }
+        return ids;
+    }
+
+    private static List<Long> range(long first, long last) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = first; id <= last; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
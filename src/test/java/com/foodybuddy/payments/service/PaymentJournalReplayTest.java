@@ -0,0 +1,142 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.journal.JournalEntry;
+import com.foodybuddy.payments.journal.PaymentJournal;
+import com.foodybuddy.payments.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A crash after the drain transaction commits but before the journal checkpoint is
+ * written: on restart the batch is drained again, and every payment must still end up
+ * with exactly one payments row and one outbox event
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "payment.identifiers.node-id=0")
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentJournalReplayTest {
+
+    private static final int PAYMENTS = 25;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&currentSchema=payments");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private PaymentFactory paymentFactory;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private PaymentStatsService paymentStatsService;
+
+    @Autowired
+    private PaymentCache paymentCache;
+
+    @Autowired
+    private PaymentMetrics paymentMetrics;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchReplayedAfterACrashBeforeTheCheckpointIsNotDuplicated() {
+        PaymentConfig paymentConfig = journalConfig();
+        PaymentJournal crashing = new CrashBeforeCheckpoint(paymentConfig, paymentMetrics);
+        List<String> paymentIds = new ArrayList<>();
+        for (int i = 0; i < PAYMENTS; i++) {
+            Payment payment = paymentFactory.newPayment(
+                new ProcessPaymentRequest("order-journal-" + i, new BigDecimal("12.50"), PaymentMethod.CREDIT_CARD),
+                idGenerator.nextPaymentId());
+            payment.transitionTo(PaymentStatus.COMPLETED);
+            paymentIds.add(crashing.append(payment).getPaymentId());
+        }
+
+        // Commits the batch, then "crashes" in drained() before the checkpoint is written
+        drainer(crashing, paymentConfig).drain();
+        assertEquals(PAYMENTS, paymentRepository.findByPaymentIdIn(paymentIds).size());
+        assertEquals(PAYMENTS, crashing.nextBatch(PAYMENTS + 1).size());
+
+        PaymentJournal restarted = new PaymentJournal(paymentConfig, paymentMetrics);
+        assertEquals(PAYMENTS, restarted.nextBatch(PAYMENTS + 1).size());
+        drainer(restarted, paymentConfig).drain();
+
+        assertTrue(restarted.nextBatch(PAYMENTS + 1).isEmpty());
+        for (String paymentId : paymentIds) {
+            assertNull(restarted.pending(paymentId));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payments WHERE payment_id = ?", Integer.class, paymentId));
+            assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM payment_outbox WHERE payment_id = ?", Integer.class, paymentId));
+        }
+        assertTrue(new PaymentJournal(paymentConfig, paymentMetrics).nextBatch(PAYMENTS + 1).isEmpty());
+    }
+
+    private PaymentConfig journalConfig() {
+        PaymentConfig paymentConfig = new PaymentConfig();
+        paymentConfig.getJournal().setEnabled(true);
+        paymentConfig.getJournal().setDirectory(directory.toString());
+        paymentConfig.getJournal().setSegmentSize(1024 * 1024);
+        return paymentConfig;
+    }
+
+    private PaymentJournalDrainer drainer(PaymentJournal paymentJournal, PaymentConfig paymentConfig) {
+        return new PaymentJournalDrainer(paymentJournal, paymentRepository, outboxService, paymentStatsService,
+            paymentCache, paymentConfig, transactionManager);
+    }
+
+    private static class CrashBeforeCheckpoint extends PaymentJournal {
+
+        CrashBeforeCheckpoint(PaymentConfig paymentConfig, PaymentMetrics paymentMetrics) {
+            super(paymentConfig, paymentMetrics);
+        }
+
+        @Override
+        public void drained(List<JournalEntry> batch) {
+            throw new IllegalStateException("Simulated crash before the journal checkpoint");
+        }
+    }
+}
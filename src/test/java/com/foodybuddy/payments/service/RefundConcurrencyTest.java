@@ -0,0 +1,115 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.dto.ProcessPaymentRequest;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.exception.PaymentConflictException;
+import com.foodybuddy.payments.id.IdGenerator;
+import com.foodybuddy.payments.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 1k concurrent refunds of one completed payment: exactly one may win the
+ * COMPLETED -> REFUNDED transition, every other caller gets a conflict
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    properties = "payment.identifiers.node-id=0")
+@Testcontainers(disabledWithoutDocker = true)
+class RefundConcurrencyTest {
+
+    private static final int REFUNDS = 1000;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&currentSchema=payments");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentFactory paymentFactory;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void onlyOneConcurrentRefundWins() throws Exception {
+        Payment payment = paymentFactory.newPayment(
+            new ProcessPaymentRequest("order-refund", new BigDecimal("25.98"), PaymentMethod.CREDIT_CARD),
+            idGenerator.nextPaymentId());
+        payment.transitionTo(PaymentStatus.COMPLETED);
+        String paymentId = paymentRepository.save(payment).getPaymentId();
+        long version = paymentRepository.findByPaymentId(paymentId).orElseThrow().getVersion();
+
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentStatus>> refunds = new ArrayList<>();
+        try {
+            for (int i = 0; i < REFUNDS; i++) {
+                refunds.add(callers.submit(() -> {
+                    start.await();
+                    return paymentService.refundPayment(paymentId).getStatus();
+                }));
+            }
+            start.countDown();
+
+            int refunded = 0;
+            int conflicts = 0;
+            for (Future<PaymentStatus> refund : refunds) {
+                try {
+                    assertEquals(PaymentStatus.REFUNDED, refund.get(60, TimeUnit.SECONDS));
+                    refunded++;
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof PaymentConflictException)) {
+                        throw e;
+                    }
+                    conflicts++;
+                }
+            }
+
+            assertEquals(1, refunded);
+            assertEquals(REFUNDS - 1, conflicts);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        Payment stored = paymentRepository.findByPaymentId(paymentId).orElseThrow();
+        assertEquals(PaymentStatus.REFUNDED, stored.getStatus());
+        assertEquals(version + 1, stored.getVersion());
+        assertEquals(1, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM payment_outbox WHERE payment_id = ?", Integer.class, paymentId));
+    }
+}
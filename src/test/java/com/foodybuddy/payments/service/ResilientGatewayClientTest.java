@@ -0,0 +1,188 @@
+package com.foodybuddy.payments.service;
+
+import com.foodybuddy.payments.config.PaymentConfig;
+import com.foodybuddy.payments.entity.Money;
+import com.foodybuddy.payments.entity.Payment;
+import com.foodybuddy.payments.entity.PaymentMethod;
+import com.foodybuddy.payments.entity.PaymentStatus;
+import com.foodybuddy.payments.gateway.GatewayResult;
+import com.foodybuddy.payments.gateway.PaymentGateway;
+import com.foodybuddy.payments.gateway.PaymentGatewayRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResilientGatewayClientTest {
+
+    private PaymentConfig paymentConfig;
+    private ScriptedGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        paymentConfig = new PaymentConfig();
+        paymentConfig.getProcessing().setTimeout(5000);
+        paymentConfig.getProcessing().setAttemptTimeout(1000);
+        paymentConfig.getProcessing().setRetryAttempts(3);
+        paymentConfig.getProcessing().setRetryBackoff(1);
+        paymentConfig.getProcessing().setRetryMaxBackoff(5);
+        paymentConfig.getExecution().setMaxConcurrentGatewayCalls(1);
+        paymentConfig.getExecution().setGatewayPermitWait(0);
+        paymentConfig.getCircuitBreaker().setSlidingWindowSize(4);
+        paymentConfig.getCircuitBreaker().setMinimumCalls(4);
+        paymentConfig.getCircuitBreaker().setOpenDuration(60000);
+        gateway = new ScriptedGateway();
+    }
+
+    @Test
+    void retriesGatewayErrorsUntilApproved() throws Exception {
+        gateway.script(failed(), failed(), approved());
+
+        GatewayResult result = client().charge(payment()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentStatus.COMPLETED, result.getStatus());
+        assertEquals(3, gateway.calls.get());
+    }
+
+    @Test
+    void declinesAreNotRetried() throws Exception {
+        gateway.script(() -> CompletableFuture.completedFuture(GatewayResult.declined("Insufficient funds")));
+
+        GatewayResult result = client().charge(payment()).get(5, TimeUnit.SECONDS);
+
+        assertEquals(PaymentStatus.FAILED, result.getStatus());
+        assertEquals(1, gateway.calls.get());
+    }
+
+    @Test
+    void failsWithTheLastErrorOnceRetriesRunOut() {
+        gateway.script(failed(), failed(), failed(), failed(), approved());
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+            () -> client().charge(payment()).get(5, TimeUnit.SECONDS));
+
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(4, gateway.calls.get());
+    }
+
+    @Test
+    void cancellingStopsRetriesAndReleasesThePermit() throws Exception {
+        CompletableFuture<GatewayResult> pending = new CompletableFuture<>();
+        gateway.script(() -> pending, approved());
+        ResilientGatewayClient client = client();
+
+        CompletableFuture<GatewayResult> call = client.charge(payment());
+        // The caller gives up, as on a processing timeout, then the in-flight attempt fails
+        assertTrue(call.cancel(false));
+        pending.completeExceptionally(new IllegalStateException("gateway error"));
+        Thread.sleep(100);
+
+        assertEquals(1, gateway.calls.get(), "a retry charged the payment after the caller gave up");
+        // The single permit is free again
+        assertEquals(PaymentStatus.COMPLETED, client.charge(payment()).get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void openCircuitRejectsBeforeCallingTheGateway() throws Exception {
+        paymentConfig.getProcessing().setRetryAttempts(0);
+        gateway.script(failed(), failed(), failed(), failed(), approved());
+        ResilientGatewayClient client = client();
+
+        for (int i = 0; i < 4; i++) {
+            CompletableFuture<GatewayResult> call = client.charge(payment());
+            assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> client.charge(payment()));
+        assertEquals(4, gateway.calls.get());
+    }
+
+    @Test
+    void rejectsWhenNoPermitIsFree() {
+        gateway.script(CompletableFuture::new);
+        ResilientGatewayClient client = client();
+
+        client.charge(payment());
+
+        assertThrows(RejectedExecutionException.class, () -> client.charge(payment()));
+        assertEquals(1, gateway.calls.get());
+    }
+
+    @Test
+    void passedPermitDeadlineRejectsWithoutWaiting() {
+        paymentConfig.getExecution().setGatewayPermitWait(5000);
+        gateway.script(CompletableFuture::new);
+        ResilientGatewayClient client = client();
+        client.charge(payment());
+
+        long start = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> client.charge(payment(), System.nanoTime()));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000,
+            "waited for a permit past the deadline");
+        assertEquals(1, gateway.calls.get());
+    }
+
+    private ResilientGatewayClient client() {
+        return new ResilientGatewayClient(new PaymentGatewayRegistry(List.of(gateway)), paymentConfig,
+            new PaymentMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static Payment payment() {
+        return new Payment("pay-1", "order-1", Money.of(new BigDecimal("10.00"), "USD"),
+            PaymentStatus.PROCESSING, PaymentMethod.CREDIT_CARD);
+    }
+
+    private static Supplier<CompletableFuture<GatewayResult>> approved() {
+        return () -> CompletableFuture.completedFuture(GatewayResult.approved("Approved"));
+    }
+
+    private static Supplier<CompletableFuture<GatewayResult>> failed() {
+        return () -> CompletableFuture.failedFuture(new IllegalStateException("gateway error"));
+    }
+
+    /**
+     * Answers each charge with the next scripted outcome, repeating the last one
+     */
+    private static final class ScriptedGateway implements PaymentGateway {
+
+        private final Queue<Supplier<CompletableFuture<GatewayResult>>> outcomes = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile Supplier<CompletableFuture<GatewayResult>> last;
+
+        @SafeVarargs
+        final void script(Supplier<CompletableFuture<GatewayResult>>... scripted) {
+            outcomes.addAll(List.of(scripted));
+        }
+
+        @Override
+        public boolean supports(PaymentMethod method) {
+            return true;
+        }
+
+        @Override
+        public CompletableFuture<GatewayResult> charge(Payment payment) {
+            calls.incrementAndGet();
+            Supplier<CompletableFuture<GatewayResult>> next = outcomes.poll();
+            if (next != null) {
+                last = next;
+            }
+            return last.get();
+        }
+    }
+}
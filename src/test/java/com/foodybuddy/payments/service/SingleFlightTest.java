@@ -0,0 +1,228 @@
+package com.foodybuddy.payments.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private final Map<SingleFlight.Outcome, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(10_000);
+        Supplier<String> loader = blockingLoader(() -> "payment-" + loads.get());
+
+        List<Future<String>> results = runConcurrently(CALLERS, () -> singleFlight.execute("key", loader));
+
+        assertEquals(1, loads.get());
+        for (Future<String> result : results) {
+            assertEquals("payment-1", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, count(SingleFlight.Outcome.LOADED));
+        assertEquals(CALLERS - 1, count(SingleFlight.Outcome.COALESCED));
+    }
+
+    @Test
+    void failedLoadIsRethrownToEveryWaiter() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(10_000);
+        IllegalStateException failure = new IllegalStateException("database down");
+        Supplier<String> loader = blockingLoader(() -> {
+            throw failure;
+        });
+
+        List<Future<String>> results = runConcurrently(CALLERS, () -> singleFlight.execute("key", loader));
+
+        assertEquals(1, loads.get());
+        for (Future<String> result : results) {
+            ExecutionException error = assertThrows(ExecutionException.class,
+                () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, error.getCause());
+        }
+    }
+
+    @Test
+    void differentKeysDoNotShareALoad() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(10_000);
+        AtomicInteger next = new AtomicInteger();
+        Supplier<String> loader = blockingLoader(() -> "value");
+
+        runConcurrently(4, () -> singleFlight.execute("key-" + next.getAndIncrement(), loader));
+
+        assertEquals(4, loads.get());
+        assertEquals(4, count(SingleFlight.Outcome.LOADED));
+    }
+
+    @Test
+    void waiterLoadsItselfAfterMaxWait() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(50);
+        ExecutorService leader = Executors.newSingleThreadExecutor();
+        try {
+            leader.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "stalled";
+            }));
+            awaitLoads(1);
+
+            long start = System.nanoTime();
+            String value = singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return "own";
+            });
+
+            assertEquals("own", value);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+            assertEquals(1, count(SingleFlight.Outcome.WAIT_TIMEOUT));
+        } finally {
+            release.countDown();
+            leader.shutdown();
+        }
+    }
+
+    @Test
+    void forgetDetachesTheRunningLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = singleFlight(10_000);
+        ExecutorService leader = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> stale = leader.submit(() -> singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "before write";
+            }));
+            awaitLoads(1);
+
+            // A write evicts the key; the next read must not join the load that started before it
+            singleFlight.forget("key");
+            String fresh = singleFlight.execute("key", () -> {
+                loads.incrementAndGet();
+                return "after write";
+            });
+
+            assertEquals("after write", fresh);
+            assertEquals(2, count(SingleFlight.Outcome.LOADED));
+            release.countDown();
+            assertEquals("before write", stale.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            leader.shutdown();
+        }
+    }
+
+    @Test
+    void finishedLoadIsNotReused() {
+        SingleFlight<String, String> singleFlight = singleFlight(10_000);
+
+        singleFlight.execute("key", () -> "first");
+        String second = singleFlight.execute("key", () -> "second");
+
+        assertEquals("second", second);
+        assertEquals(2, count(SingleFlight.Outcome.LOADED));
+    }
+
+    private SingleFlight<String, String> singleFlight(long maxWaitMillis) {
+        return new SingleFlight<>(maxWaitMillis,
+            outcome -> outcomes.computeIfAbsent(outcome, o -> new AtomicInteger()).incrementAndGet());
+    }
+
+    private int count(SingleFlight.Outcome outcome) {
+        AtomicInteger counter = outcomes.get(outcome);
+        return counter == null ? 0 : counter.get();
+    }
+
+    // Counts the load, then holds it until release, so every caller has arrived first
+    private Supplier<String> blockingLoader(Supplier<String> result) {
+        return () -> {
+            loads.incrementAndGet();
+            await(release);
+            return result.get();
+        };
+    }
+
+    /**
+     * Start the calls together, wait until every caller is blocked (in the loader or
+     * waiting for it), then let the loads finish
+     */
+    private List<Future<String>> runConcurrently(int callers, Supplier<String> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Thread> threads = new ArrayList<>();
+        CountDownLatch started = new CountDownLatch(callers);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    synchronized (threads) {
+                        threads.add(Thread.currentThread());
+                    }
+                    started.countDown();
+                    return call.get();
+                }));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!allBlocked(threads)) {
+                assertTrue(System.nanoTime() < deadline, "callers did not block");
+                Thread.sleep(1);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    // Checked by the caller
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static boolean allBlocked(List<Thread> threads) {
+        synchronized (threads) {
+            for (Thread thread : threads) {
+                Thread.State state = thread.getState();
+                if (state != Thread.State.WAITING && state != Thread.State.TIMED_WAITING) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void awaitLoads(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads.get() < expected) {
+            assertTrue(System.nanoTime() < deadline, "load did not start");
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}